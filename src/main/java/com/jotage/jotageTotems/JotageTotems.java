@@ -1,6 +1,8 @@
 package com.jotage.jotageTotems;
 
 import com.jotage.jotageTotems.listeners.ChatListener;
+import com.jotage.jotageTotems.listeners.ChunkListener;
+import com.jotage.jotageTotems.listeners.ProtectionListener;
 import com.jotage.jotageTotems.listeners.TotemListener;
 import com.jotage.jotageTotems.managers.*;
 import com.jotage.jotageTotems.ui.TotemMenu;
@@ -12,8 +14,11 @@ public final class JotageTotems extends JavaPlugin {
     private MessageManager messageManager;
     private RecipeManager recipeManager;
     private PlayerDataManager playerDataManager;
+    private PlayerSessionStore sessionStore;
     private TotemManager totemManager;
     private TeleportHandler teleportHandler;
+    private AmbientParticleManager ambientParticleManager;
+    private HologramManager hologramManager;
     private TotemMenu totemMenu;
     private ChatListener chatListener;
 
@@ -53,6 +58,13 @@ public final class JotageTotems extends JavaPlugin {
             playerDataManager = new PlayerDataManager(this);
             getLogger().info(GREEN + "✓ PlayerDataManager carregado" + RESET);
 
+            // Loads sessionStore (estado temporário, só em memória)
+            sessionStore = new PlayerSessionStore(this);
+
+            // Loads hologramManager
+            hologramManager = new HologramManager(this);
+            getLogger().info(GREEN + "✓ HologramManager carregado" + RESET);
+
             // Loads totemHandler
             teleportHandler = new TeleportHandler(this);
             getLogger().info(GREEN + "✓ TeleportHandler carregado" + RESET);
@@ -61,6 +73,14 @@ public final class JotageTotems extends JavaPlugin {
             getServer().getPluginManager().registerEvents(new TotemListener(this), this);
             getLogger().info(GREEN + "✓ TotemListener registrado" + RESET);
 
+            // Loads ChunkListener
+            getServer().getPluginManager().registerEvents(new ChunkListener(this), this);
+            getLogger().info(GREEN + "✓ ChunkListener registrado" + RESET);
+
+            // Loads ProtectionListener
+            getServer().getPluginManager().registerEvents(new ProtectionListener(this), this);
+            getLogger().info(GREEN + "✓ ProtectionListener registrado" + RESET);
+
             // Loads totemRecipe
             recipeManager = new RecipeManager(this);
             getLogger().info(GREEN + "✓ RecipeManager carregado" + RESET);
@@ -80,6 +100,13 @@ public final class JotageTotems extends JavaPlugin {
             playerDataManager.loadFromFile();
             recipeManager.registerTotemRecipe();
 
+            // Hologramas dos chunks que já estão carregados
+            hologramManager.spawnLoaded();
+
+            // Partículas ambiente dos totems
+            ambientParticleManager = new AmbientParticleManager(this);
+            ambientParticleManager.start();
+
         }
         catch (Exception e) {
             getLogger().severe("ERRO ao carregar managers: " + e.getMessage());
@@ -104,24 +131,45 @@ public final class JotageTotems extends JavaPlugin {
             recipeManager.unregisterRecipe();
         }
 
+        // Aplica as renomeações já validadas no chat antes de fechar os journals
+        if (chatListener != null) {
+            chatListener.stop();
+        }
+
+        // Espera (com limite de tempo) as escritas pendentes terminarem
         if (playerDataManager != null) {
-            playerDataManager.saveToFile();
+            playerDataManager.shutdown();
         }
 
         if (totemManager != null) {
-            totemManager.saveToFile();
+            totemManager.shutdown();
         }
 
         if (teleportHandler != null) {
             teleportHandler.cancelAllTeleports();
         }
 
+        if (ambientParticleManager != null) {
+            ambientParticleManager.stop();
+        }
+
+        if (hologramManager != null) {
+            hologramManager.removeAll();
+        }
+
+        if (sessionStore != null) {
+            sessionStore.stop();
+        }
+
         configManager = null;
         messageManager = null;
         recipeManager = null;
         playerDataManager = null;
+        sessionStore = null;
         totemManager = null;
         teleportHandler = null;
+        ambientParticleManager = null;
+        hologramManager = null;
         totemMenu = null;
         chatListener = null;
 
@@ -146,6 +194,10 @@ public final class JotageTotems extends JavaPlugin {
         return playerDataManager;
     }
 
+    public PlayerSessionStore getSessionStore() {
+        return sessionStore;
+    }
+
     public TotemManager getTotemManager() {
         return totemManager;
     }
@@ -154,6 +206,14 @@ public final class JotageTotems extends JavaPlugin {
         return teleportHandler;
     }
 
+    public AmbientParticleManager getAmbientParticleManager() {
+        return ambientParticleManager;
+    }
+
+    public HologramManager getHologramManager() {
+        return hologramManager;
+    }
+
     public TotemMenu getTotemMenu() {
         return totemMenu;
     }
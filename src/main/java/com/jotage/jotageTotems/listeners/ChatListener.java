@@ -2,36 +2,88 @@ package com.jotage.jotageTotems.listeners;
 
 import com.jotage.jotageTotems.JotageTotems;
 import com.jotage.jotageTotems.models.Totem;
-import org.bukkit.ChatColor;
+import com.jotage.jotageTotems.storage.TotemRecord;
+import com.jotage.jotageTotems.utils.MessageArgs;
+import com.jotage.jotageTotems.utils.WheelTicker;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.AsyncPlayerChatEvent;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Renomeação de totems digitada no chat.
+ * O chat roda em outra thread: lá só se consulta o registro de espera (concorrente) e se valida o texto.
+ * Renomear de fato (índices, menus, journal) fica na main thread, numa fila drenada em lote.
+ */
 public class ChatListener implements Listener {
 
+    private static final int MAX_NAME_LENGTH = 32;
+
+    // Um jogador aguardando digitar o nome de um totem.
+    // Classe (e não record) de propósito: a expiração compara por identidade, não por valor
+    private static final class PendingRename {
+
+        private final UUID playerId;
+        private final UUID totemId;
+
+        private PendingRename(UUID playerId, UUID totemId) {
+            this.playerId = playerId;
+            this.totemId = totemId;
+        }
+
+        private UUID playerId() {
+            return playerId;
+        }
+
+        private UUID totemId() {
+            return totemId;
+        }
+    }
+
+    // Nome já validado no chat, esperando a main thread.
+    // Nome e permissão do jogador vão junto: a main thread aplica mesmo que ele saia antes
+    private record RenameRequest(UUID playerId, String playerName, boolean admin, UUID totemId, String name) {
+    }
+
     private final JotageTotems plugin;
-    private final Map<UUID, UUID> waitingForInput;
+    private final Map<UUID, PendingRename> waitingForInput;
+
+    // Expiração das esperas (só main thread)
+    private final WheelTicker<PendingRename> expiryWheel;
+
+    private final Queue<RenameRequest> renameQueue;
+    private final AtomicBoolean drainScheduled;
+    // Desligado no stop(): o chat deixa de consumir mensagens
+    private volatile boolean accepting;
 
     public ChatListener(JotageTotems plugin) {
         this.plugin = plugin;
-        this.waitingForInput = new HashMap<>();
+        this.waitingForInput = new ConcurrentHashMap<>();
+        this.expiryWheel = new WheelTicker<>(plugin, 64, this::expire);
+        this.renameQueue = new ConcurrentLinkedQueue<>();
+        this.drainScheduled = new AtomicBoolean(false);
+        this.accepting = true;
     }
 
     public void waitForRename(Player player, UUID totemId) {
-        waitingForInput.put(player.getUniqueId(), totemId);
+        PendingRename pending = new PendingRename(player.getUniqueId(), totemId);
+        waitingForInput.put(player.getUniqueId(), pending);
+
+        // A espera anterior (se houver) continua na roda, mas não expira esta: a remoção compara a instância
+        expiryWheel.schedule(pending, plugin.getConfigManager().getRenameInputTimeoutTicks());
 
         // Mensagem instruindo o jogador
-        player.sendMessage("");
-        player.sendMessage(ChatColor.GOLD + "RENOMEAR TOTEM" + ChatColor.YELLOW);
-        player.sendMessage(ChatColor.WHITE + "Digite o novo nome no chat");
-        player.sendMessage(ChatColor.GRAY + "ou digite " + ChatColor.RED + "cancelar" + ChatColor.GRAY + " para cancelar  ");
-        player.sendMessage("");
+        plugin.getMessageManager().sendMessage(player, "rename-prompt");
     }
 
     public void cancelWaiting(UUID playerId) {
@@ -42,87 +94,143 @@ public class ChatListener implements Listener {
         return waitingForInput.containsKey(playerId);
     }
 
+    private void expire(PendingRename pending) {
+        // Só remove se ainda for a mesma espera (o jogador pode já ter digitado ou pedido de novo)
+        if (!waitingForInput.remove(pending.playerId(), pending)) {
+            return;
+        }
+
+        Player player = Bukkit.getPlayer(pending.playerId());
+        if (player != null) {
+            plugin.getMessageManager().sendMessage(player, "rename-expired");
+        }
+    }
+
+    /**
+     * Para de aceitar nomes e aplica os que já foram validados.
+     * Chamar na main thread antes de desligar os managers, para as renomeações irem para o journal.
+     */
+    public void stop() {
+        accepting = false;
+        expiryWheel.stop();
+
+        waitingForInput.clear();
+        drainRenames();
+    }
+
     @EventHandler(priority = EventPriority.LOWEST)
-    public void onPlayerChat(AsyncPlayerChatEvent event) {
+    public void onPlayerChat(AsyncChatEvent event) {
         Player player = event.getPlayer();
         UUID playerId = player.getUniqueId();
 
-        // Verifica se o jogador está aguardando input
-        if (!waitingForInput.containsKey(playerId)) {
+        if (!accepting) {
+            return;
+        }
+
+        // Remove de forma atômica: só uma mensagem consome a espera
+        PendingRename pending = waitingForInput.remove(playerId);
+        if (pending == null) {
             return; // Não está aguardando, deixa a mensagem passar
         }
 
         // Cancela o evento (mensagem não aparece no chat)
         event.setCancelled(true);
 
-        String message = event.getMessage().trim();
-        UUID totemId = waitingForInput.get(playerId);
-
-        // Remove do map
-        waitingForInput.remove(playerId);
+        String message = PlainTextComponentSerializer.plainText().serialize(event.message()).trim();
+        UUID totemId = pending.totemId();
 
         // ===== VERIFICAÇÃO 1: Cancelar? =====
         if (message.equalsIgnoreCase("cancelar") ||
                 message.equalsIgnoreCase("cancel") ||
                 message.equalsIgnoreCase("sair")) {
 
-            player.sendMessage(ChatColor.RED + "✗ Renomeação cancelada.");
+            plugin.getMessageManager().sendMessage(player, "rename-cancelled");
             return;
         }
 
         // ===== VERIFICAÇÃO 2: Nome vazio? =====
         if (message.isEmpty()) {
-            player.sendMessage(ChatColor.RED + "✗ Nome não pode ser vazio!");
+            plugin.getMessageManager().sendMessage(player, "rename-empty");
             return;
         }
 
         // ===== VERIFICAÇÃO 3: Nome muito longo? =====
-        if (message.length() > 32) {
-            player.sendMessage(ChatColor.RED + "✗ Nome muito longo! Máximo 32 caracteres.");
+        if (message.length() > MAX_NAME_LENGTH) {
+            plugin.getMessageManager().sendMessage(player, "rename-too-long",
+                    new MessageArgs(1).set("max", MAX_NAME_LENGTH));
             return;
         }
 
-        // ===== VERIFICAÇÃO 4: Totem ainda existe? =====
-        Totem totem = plugin.getTotemManager().getTotemById(totemId);
+        // ===== VERIFICAÇÃO 4: Totem existe? =====
+        // Lida no catálogo imutável, seguro nesta thread; a main thread confere de novo antes de renomear
+        TotemRecord record = plugin.getTotemManager().getCatalog().get(totemId);
+
+        if (record == null) {
+            plugin.getMessageManager().sendMessage(player, "rename-totem-not-found");
+            return;
+        }
+
+        // O resto roda na main thread: renomear atualiza os menus abertos (inventários) e o journal
+        renameQueue.add(new RenameRequest(playerId, player.getName(), player.hasPermission("totem.admin"),
+                totemId, message));
+
+        // Uma única task drena tudo que chegou até ela rodar
+        if (drainScheduled.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTask(plugin, this::drainRenames);
+        }
+    }
+
+    private void drainRenames() {
+        // Libera antes de drenar: o que chegar durante o loop agenda a próxima task
+        drainScheduled.set(false);
+
+        RenameRequest request;
+        while ((request = renameQueue.poll()) != null) {
+            applyRename(request);
+        }
+    }
+
+    private void applyRename(RenameRequest request) {
+        // O jogador pode ter saído desde o chat: renomeia assim mesmo, só não há para quem responder
+        Player player = Bukkit.getPlayer(request.playerId());
+
+        String message = request.name();
+
+        // ===== VERIFICAÇÃO 5: Totem ainda existe? (pode ter sido removido nesse meio tempo) =====
+        Totem totem = plugin.getTotemManager().getTotemById(request.totemId());
 
         if (totem == null) {
-            player.sendMessage(ChatColor.RED + "✗ Totem não encontrado!");
+            if (player != null) {
+                plugin.getMessageManager().sendMessage(player, "rename-totem-not-found");
+            }
             return;
         }
 
-        // ===== VERIFICAÇÃO 5: Permissão para renomear? =====
+        // ===== VERIFICAÇÃO 6: Permissão para renomear? =====
         // Pode renomear se: é o dono OU tem permissão admin
-        boolean isOwner = totem.getOwnerId().equals(playerId);
-        boolean isAdmin = player.hasPermission("totem.admin");
+        boolean isOwner = totem.getOwnerId().equals(request.playerId());
 
-        if (!isOwner && !isAdmin) {
-            player.sendMessage(ChatColor.RED + "✗ Você não tem permissão para renomear este totem!");
-            player.sendMessage(ChatColor.GRAY + "(Apenas o dono ou admins podem renomear)");
+        if (!isOwner && !request.admin()) {
+            if (player != null) {
+                plugin.getMessageManager().sendMessage(player, "rename-no-permission");
+            }
             return;
         }
 
         // ===== TUDO OK: RENOMEIA! =====
+        // Os menus abertos com este totem são atualizados pelo TotemManager/TotemMenu
 
         String oldName = totem.getName();
-        totem.setName(message);
-
-        // Salva
-        plugin.getTotemManager().saveToFile();
+        plugin.getTotemManager().renameTotem(totem, message);
 
         // Mensagem de sucesso
-        player.sendMessage("");
-        player.sendMessage(ChatColor.GREEN + "✓ Totem renomeado com sucesso!");
-        player.sendMessage(ChatColor.GRAY + "  Nome antigo: " + ChatColor.WHITE + oldName);
-        player.sendMessage(ChatColor.GRAY + "  Nome novo: " + ChatColor.AQUA + message);
-        player.sendMessage("");
+        if (player != null) {
+            plugin.getMessageManager().sendMessage(player, "rename-success",
+                    new MessageArgs(2).set("old", oldName).set("new", message));
+        }
 
         // Log
-        plugin.getLogger().info("Jogador " + player.getName() + " renomeou totem de '" +
+        plugin.getLogger().info("Jogador " + request.playerName() + " renomeou totem de '" +
                 oldName + "' para '" + message + "'");
-
-        // Reabre o menu se estava aberto
-        if (player.getOpenInventory().getTitle().equals(ChatColor.DARK_PURPLE + "Seus Totens")) {
-            plugin.getTotemMenu().refresh(player);
-        }
     }
 }
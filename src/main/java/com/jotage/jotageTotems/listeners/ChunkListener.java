@@ -0,0 +1,38 @@
+package com.jotage.jotageTotems.listeners;
+
+import com.jotage.jotageTotems.JotageTotems;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+
+public class ChunkListener implements Listener {
+
+    private final JotageTotems plugin;
+
+    public ChunkListener(JotageTotems plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        // Valida/restaura os totems desse chunk que ainda não foram verificados desde o startup
+        plugin.getTotemManager().onChunkLoad(event.getChunk());
+
+        // Hologramas só existem em chunks carregados
+        plugin.getHologramManager().onChunkLoad(event.getChunk());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        plugin.getHologramManager().onChunkUnload(event.getChunk());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        // Hologramas salvos no disco são sobras (eles não são persistentes): remove
+        plugin.getHologramManager().removeOrphans(event.getEntities());
+    }
+}
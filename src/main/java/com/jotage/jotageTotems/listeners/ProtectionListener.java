@@ -0,0 +1,104 @@
+package com.jotage.jotageTotems.listeners;
+
+import com.jotage.jotageTotems.JotageTotems;
+import com.jotage.jotageTotems.managers.TotemManager;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Protege os blocos de totem contra explosões e pistões quando totem-block.indestructible = true.
+ * Cada bloco afetado custa no máximo duas consultas O(1); blocos seguidos no mesmo chunk
+ * reaproveitam o resultado da checagem do chunk.
+ */
+public class ProtectionListener implements Listener {
+
+    private final JotageTotems plugin;
+
+    public ProtectionListener(JotageTotems plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        // TNT, creepers, withers...
+        if (isProtectionActive()) {
+            removeTotemBlocks(event.blockList());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        // Camas/âncoras de respawn explodindo
+        if (isProtectionActive()) {
+            removeTotemBlocks(event.blockList());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        if (isProtectionActive() && containsTotemBlock(event.getBlocks())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        if (isProtectionActive() && containsTotemBlock(event.getBlocks())) {
+            event.setCancelled(true);
+        }
+    }
+
+    private boolean isProtectionActive() {
+        return plugin.getConfigManager().isTotemBlockIndestructible()
+                && plugin.getTotemManager().getTotalTotems() > 0;
+    }
+
+    // Tira da lista da explosão os blocos que são totems (a explosão continua para o resto)
+    private void removeTotemBlocks(List<Block> blocks) {
+        TotemManager totemManager = plugin.getTotemManager();
+
+        int lastChunkX = Integer.MIN_VALUE;
+        int lastChunkZ = Integer.MIN_VALUE;
+        boolean chunkHasTotem = false;
+
+        Iterator<Block> iterator = blocks.iterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            int chunkX = block.getX() >> 4;
+            int chunkZ = block.getZ() >> 4;
+
+            // Explosões vêm agrupadas: só consulta o chunk quando ele muda
+            if (chunkX != lastChunkX || chunkZ != lastChunkZ) {
+                lastChunkX = chunkX;
+                lastChunkZ = chunkZ;
+                chunkHasTotem = totemManager.hasTotemInChunk(block.getWorld(), chunkX, chunkZ);
+            }
+
+            if (chunkHasTotem && totemManager.hasTotemAt(block.getWorld(), block.getX(), block.getY(), block.getZ())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private boolean containsTotemBlock(List<Block> blocks) {
+        TotemManager totemManager = plugin.getTotemManager();
+
+        for (Block block : blocks) {
+            if (totemManager.hasTotemInChunk(block.getWorld(), block.getX() >> 4, block.getZ() >> 4)
+                    && totemManager.hasTotemAt(block.getWorld(), block.getX(), block.getY(), block.getZ())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
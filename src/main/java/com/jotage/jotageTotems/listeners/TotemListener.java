@@ -2,6 +2,7 @@ package com.jotage.jotageTotems.listeners;
 
 import com.jotage.jotageTotems.JotageTotems;
 import com.jotage.jotageTotems.models.Totem;
+import com.jotage.jotageTotems.utils.MessageArgs;
 import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
@@ -12,12 +13,11 @@ import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
 public class TotemListener implements Listener {
@@ -72,10 +72,9 @@ public class TotemListener implements Listener {
         if (!plugin.getTotemManager().canPlayerCreateMore(player)) {
             int max = plugin.getConfigManager().getMaxTotemsPerPlayer();
 
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("max", String.valueOf(max));
+            MessageArgs args = new MessageArgs(1).set("max", max);
 
-            plugin.getMessageManager().sendMessage(player, "error-max-totems", placeholders);
+            plugin.getMessageManager().sendMessage(player, "error-max-totems", args);
             return;
         }
 
@@ -106,6 +105,9 @@ public class TotemListener implements Listener {
             return;
         }
 
+        // Novo dono: guarda o nome para o menu e o holograma
+        plugin.getPlayerDataManager().rememberName(player.getUniqueId(), player.getName());
+
         // ===== CONSOME O ITEM =====
         item.setAmount(item.getAmount() - 1);
 
@@ -114,17 +116,16 @@ public class TotemListener implements Listener {
 
         // ===== MENSAGEM DE SUCESSO =====
         plugin.getMessageManager().sendMessage(player, "totem-created");
-
-        // Salva dados
-        plugin.getTotemManager().saveToFile();
-        plugin.getPlayerDataManager().saveToFile();
     }
 
     private void handleTotemInteraction(PlayerInteractEvent event, Player player, Block block) {
-        Location location = block.getLocation();
+        // Chunk sem nenhum totem: sai sem consultar o índice de blocos
+        if (!plugin.getTotemManager().hasTotemInChunk(block.getWorld(), block.getX() >> 4, block.getZ() >> 4)) {
+            return;
+        }
 
         // Verifica se é um totem
-        Totem totem = plugin.getTotemManager().getTotemByLocation(location);
+        Totem totem = plugin.getTotemManager().getTotemAt(block.getWorld(), block.getX(), block.getY(), block.getZ());
 
         if (totem == null) {
             return; // Não é um totem
@@ -145,7 +146,7 @@ public class TotemListener implements Listener {
         if (player.isSneaking()) {
 
             // Verifica se já está registrado
-            if (plugin.getPlayerDataManager().getPlayerData(playerId).hasTotemRegistered(totem.getId())) {
+            if (plugin.getPlayerDataManager().hasTotemRegistered(playerId, totem.getId())) {
                 plugin.getMessageManager().sendMessage(player, "totem-already-registered");
                 return;
             }
@@ -153,9 +154,6 @@ public class TotemListener implements Listener {
             // Registra o totem
             plugin.getPlayerDataManager().registerTotem(playerId, totem.getId());
             plugin.getMessageManager().sendMessage(player, "totem-registered");
-
-            // Salva
-            plugin.getPlayerDataManager().saveToFile();
             return;
         }
 
@@ -168,10 +166,14 @@ public class TotemListener implements Listener {
     public void onBlockBreak(BlockBreakEvent event) {
         Player player = event.getPlayer();
         Block block = event.getBlock();
-        Location location = block.getLocation();
+
+        // Chunk sem nenhum totem: sai sem consultar o índice de blocos
+        if (!plugin.getTotemManager().hasTotemInChunk(block.getWorld(), block.getX() >> 4, block.getZ() >> 4)) {
+            return;
+        }
 
         // Verifica se é um totem
-        Totem totem = plugin.getTotemManager().getTotemByLocation(location);
+        Totem totem = plugin.getTotemManager().getTotemAt(block.getWorld(), block.getX(), block.getY(), block.getZ());
 
         if (totem == null) {
             return; // Não é um totem
@@ -205,32 +207,19 @@ public class TotemListener implements Listener {
 
         // ===== SISTEMA DE CONFIRMAÇÃO =====
 
-        // Verifica se já tem uma quebra pendente
-        if (plugin.getPlayerDataManager().isPendingBreakFor(playerId, totem.getId())) {
-
-            // Verifica se expirou
-            if (plugin.getPlayerDataManager().isBreakConfirmationExpired(playerId)) {
-                // Expirou! Reseta e pede para quebrar de novo
-                plugin.getPlayerDataManager().clearPendingBreak(playerId);
-                plugin.getPlayerDataManager().setPendingBreak(playerId, totem.getId());
-                plugin.getMessageManager().sendMessage(player, "totem-break-confirm");
-                return;
-            }
+        // Verifica se já tem uma quebra pendente (a confirmação expirada já some sozinha do session store)
+        if (plugin.getSessionStore().isPendingBreakFor(playerId, totem.getId())) {
 
             // CONFIRMADO! Remove o totem
             plugin.getTotemManager().removeTotem(totem.getId());
             plugin.getPlayerDataManager().unregisterTotemFromAll(totem.getId());
-            plugin.getPlayerDataManager().clearPendingBreak(playerId);
+            plugin.getSessionStore().clearPendingBreak(playerId);
 
             plugin.getMessageManager().sendMessage(player, "totem-removed");
 
-            // Salva
-            plugin.getTotemManager().saveToFile();
-            plugin.getPlayerDataManager().saveToFile();
-
         } else {
-            // Primeira quebra: inicia confirmação
-            plugin.getPlayerDataManager().setPendingBreak(playerId, totem.getId());
+            // Primeira quebra (ou a anterior expirou): inicia confirmação
+            plugin.getSessionStore().setPendingBreak(playerId, totem.getId());
             plugin.getMessageManager().sendMessage(player, "totem-break-confirm");
         }
     }
@@ -279,6 +268,18 @@ public class TotemListener implements Listener {
         }
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+
+        // Mantém o cache de nomes atualizado (usado no menu para mostrar o dono)
+        // Só para quem já usa totems: os outros não devem entrar no playerdata
+        if (plugin.getPlayerDataManager().isKnownPlayer(player.getUniqueId())
+                || plugin.getTotemManager().countTotemsByOwner(player.getUniqueId()) > 0) {
+            plugin.getPlayerDataManager().rememberName(player.getUniqueId(), player.getName());
+        }
+    }
+
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
@@ -289,11 +290,13 @@ public class TotemListener implements Listener {
             plugin.getTeleportHandler().cancelTeleport(player);
         }
 
-        // Limpa confirmação de quebra pendente
-        plugin.getPlayerDataManager().clearPendingBreak(playerId);
+        // Limpa o estado temporário (confirmação de quebra); não cria dados persistentes
+        plugin.getSessionStore().clear(playerId);
+
+        // Descarta a renomeação que estava esperando o chat
+        plugin.getChatListener().cancelWaiting(playerId);
 
-        // Salva dados do jogador
-        plugin.getPlayerDataManager().savePlayerData(playerId);
+        // Os dados do jogador já são salvos em segundo plano a cada mudança
 
         // Opcional: descarregar dados da memória
         // plugin.getPlayerDataManager().unloadPlayerData(playerId);
@@ -0,0 +1,147 @@
+package com.jotage.jotageTotems.managers;
+
+import com.jotage.jotageTotems.JotageTotems;
+import com.jotage.jotageTotems.models.Totem;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Partículas ambiente dos totems (totem-block.particles-ambient).
+ *
+ * - Só anima totems perto de algum jogador, achados pelo índice espacial a partir de cada jogador;
+ * - As partículas vão só para os jogadores perto do totem (não para o mundo todo);
+ * - Respeita um orçamento de partículas por tick, contado por envio (totem, jogador):
+ *   uma rodada que não cabe num tick continua no próximo, do mesmo totem e jogador onde parou.
+ */
+public class AmbientParticleManager {
+
+    // Intervalo mínimo entre duas rodadas de animação do mesmo totem
+    private static final int CYCLE_TICKS = 10;
+    private static final int PARTICLES_PER_TOTEM = 4;
+
+    private final JotageTotems plugin;
+    private final Location scratchLocation;
+
+    // Rodada atual: totems ativos e, para cada um, quem recebe as partículas
+    private final List<Totem> activeTotems;
+    private final List<List<Player>> receivers;
+    private int cursor;
+    // Próximo jogador a receber as partículas do totem em activeTotems[cursor]
+    private int viewerCursor;
+    private int ticksSinceCycle;
+
+    private BukkitTask task;
+
+    public AmbientParticleManager(JotageTotems plugin) {
+        this.plugin = plugin;
+        this.scratchLocation = new Location(null, 0, 0, 0);
+        this.activeTotems = new ArrayList<>();
+        this.receivers = new ArrayList<>();
+        this.cursor = 0;
+        this.viewerCursor = 0;
+        this.ticksSinceCycle = 0;
+        this.task = null;
+    }
+
+    public void start() {
+        if (task != null || !plugin.getConfigManager().isTotemParticlesAmbient()) {
+            return;
+        }
+
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        activeTotems.clear();
+        receivers.clear();
+        cursor = 0;
+        viewerCursor = 0;
+    }
+
+    private void tick() {
+        ticksSinceCycle++;
+
+        // Rodada anterior terminou: começa outra quando der o intervalo
+        if (cursor >= activeTotems.size()) {
+            if (ticksSinceCycle < CYCLE_TICKS) {
+                return;
+            }
+
+            collectActiveTotems();
+            ticksSinceCycle = 0;
+        }
+
+        int budget = plugin.getConfigManager().getTotemParticlesPerTick();
+        Particle particle = plugin.getConfigManager().getTotemParticleType();
+
+        while (cursor < activeTotems.size() && budget > 0) {
+            Totem totem = activeTotems.get(cursor);
+            List<Player> viewers = receivers.get(cursor);
+
+            // Centro do bloco, um pouco acima
+            double x = totem.getBlockX() + 0.5;
+            double y = totem.getBlockY() + 1.1;
+            double z = totem.getBlockZ() + 0.5;
+
+            // O orçamento é conferido a cada envio: um totem com muitos jogadores perto pode ocupar vários ticks
+            while (viewerCursor < viewers.size() && budget > 0) {
+                Player viewer = viewers.get(viewerCursor++);
+                if (!viewer.isOnline()) {
+                    continue;
+                }
+
+                // Pacote só para este jogador
+                int count = Math.min(PARTICLES_PER_TOTEM, budget);
+                viewer.spawnParticle(particle, x, y, z, count, 0.3, 0.4, 0.3, 0.05);
+                budget -= count;
+            }
+
+            // Totem terminado: passa para o próximo; senão continua nele no próximo tick
+            if (viewerCursor >= viewers.size()) {
+                cursor++;
+                viewerCursor = 0;
+            }
+        }
+    }
+
+    // Monta a rodada: totems no alcance de pelo menos um jogador, consultando o índice espacial por jogador
+    private void collectActiveTotems() {
+        activeTotems.clear();
+        receivers.clear();
+        cursor = 0;
+        viewerCursor = 0;
+
+        TotemManager totemManager = plugin.getTotemManager();
+        if (totemManager.getTotalTotems() == 0) {
+            return;
+        }
+
+        double range = plugin.getConfigManager().getTotemParticlesRange();
+        Map<Totem, List<Player>> nearby = new LinkedHashMap<>();
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Location location = player.getLocation(scratchLocation);
+
+            for (Totem totem : totemManager.getTotemsWithinRadius(location, range)) {
+                if (totem.isChunkLoaded()) {
+                    nearby.computeIfAbsent(totem, k -> new ArrayList<>(2)).add(player);
+                }
+            }
+        }
+
+        for (Map.Entry<Totem, List<Player>> entry : nearby.entrySet()) {
+            activeTotems.add(entry.getKey());
+            receivers.add(entry.getValue());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.jotage.jotageTotems.managers;
 
 import com.jotage.jotageTotems.JotageTotems;
+import com.jotage.jotageTotems.storage.SnapshotFormat;
 import org.bukkit.*;
 import org.bukkit.configuration.file.FileConfiguration;
 
@@ -15,15 +16,19 @@ public class ConfigManager {
 
     // Valores cacheados
     private long cooldownSeconds;
-    private int teleportCountdown;
+    private int teleportCountdownTicks;
     private int xpCost;
     private int maxTotemsPerPlayer;
     private int breakConfirmationTime;
+    private int renameInputTimeout;
 
     private Material totemBlockMaterial;
     private boolean totemBlockIndestructible;
     private boolean totemParticlesAmbient;
     private Particle totemParticleType;
+    private double totemParticlesRange;
+    private int totemParticlesPerTick;
+    private boolean totemHolograms;
 
     private boolean effectsParticles;
     private Particle effectsParticleType;
@@ -31,6 +36,10 @@ public class ConfigManager {
     private Sound effectsSoundType;
     private Sound countdownSound;
 
+    private long journalCompactThresholdKb;
+    private SnapshotFormat snapshotFormat;
+    private long saveShutdownTimeoutSeconds;
+
     public ConfigManager(JotageTotems plugin) {
         this.plugin = plugin;
         loadConfig();
@@ -47,10 +56,12 @@ public class ConfigManager {
     private void loadValues() {
         // Configurações básicas
         cooldownSeconds = config.getLong("cooldown", 300);
-        teleportCountdown = config.getInt("teleport-countdown", 3);
+        // Aceita frações de segundo (ex.: 2.5); a contagem roda com resolução de tick
+        teleportCountdownTicks = (int) Math.round(config.getDouble("teleport-countdown", 3) * 20);
         xpCost = config.getInt("xp-cost", 1);
         maxTotemsPerPlayer = config.getInt("max-totems-per-player", 20);
         breakConfirmationTime = config.getInt("break-confirmation-time", 5);
+        renameInputTimeout = Math.max(1, config.getInt("rename-input-timeout", 30));
 
         // Bloco do totem
         String materialName = config.getString("totem-block.material", "BEDROCK");
@@ -72,6 +83,10 @@ public class ConfigManager {
             totemParticleType = Particle.PORTAL;
         }
 
+        totemParticlesRange = Math.max(1, config.getDouble("totem-block.particles-range", 24));
+        totemParticlesPerTick = Math.max(1, config.getInt("totem-block.particles-per-tick", 64));
+        totemHolograms = config.getBoolean("totem-block.holograms", true);
+
         // Efeitos do teleporte
         effectsParticles = config.getBoolean("effects.particles", true);
 
@@ -98,6 +113,10 @@ public class ConfigManager {
                 "block.note_block.pling"
         );
 
+        // Persistência
+        snapshotFormat = SnapshotFormat.fromName(config.getString("storage.format", "yaml"));
+        journalCompactThresholdKb = config.getLong("storage.journal-compact-threshold-kb", 1024);
+        saveShutdownTimeoutSeconds = config.getLong("storage.shutdown-timeout-seconds", 10);
     }
 
     public void reload() {
@@ -114,8 +133,8 @@ public class ConfigManager {
         return cooldownSeconds * 1000;
     }
 
-    public int getTeleportCountdown() {
-        return teleportCountdown;
+    public int getTeleportCountdownTicks() {
+        return teleportCountdownTicks;
     }
 
     public int getXpCost() {
@@ -134,6 +153,10 @@ public class ConfigManager {
         return breakConfirmationTime * 1000L;
     }
 
+    public int getRenameInputTimeoutTicks() {
+        return renameInputTimeout * 20;
+    }
+
     public Material getTotemBlockMaterial() {
         return totemBlockMaterial;
     }
@@ -150,6 +173,18 @@ public class ConfigManager {
         return totemParticleType;
     }
 
+    public double getTotemParticlesRange() {
+        return totemParticlesRange;
+    }
+
+    public int getTotemParticlesPerTick() {
+        return totemParticlesPerTick;
+    }
+
+    public boolean isTotemHolograms() {
+        return totemHolograms;
+    }
+
     public boolean isEffectsParticles() {
         return effectsParticles;
     }
@@ -170,6 +205,18 @@ public class ConfigManager {
         return countdownSound;
     }
 
+    public SnapshotFormat getSnapshotFormat() {
+        return snapshotFormat;
+    }
+
+    public long getJournalCompactThresholdBytes() {
+        return journalCompactThresholdKb * 1024L;
+    }
+
+    public long getSaveShutdownTimeoutMillis() {
+        return saveShutdownTimeoutSeconds * 1000L;
+    }
+
     public FileConfiguration getConfig() {
         return config;
     }
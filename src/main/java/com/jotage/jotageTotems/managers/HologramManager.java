@@ -0,0 +1,168 @@
+package com.jotage.jotageTotems.managers;
+
+import com.jotage.jotageTotems.JotageTotems;
+import com.jotage.jotageTotems.models.Totem;
+import com.jotage.jotageTotems.utils.MessageArgs;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hologramas (TextDisplay) acima dos totems.
+ * Só existem enquanto o chunk do totem está carregado: nascem no ChunkLoadEvent e somem no unload.
+ * São entidades não persistentes (nunca vão para o disco) e marcadas no PDC,
+ * para limpar sobras de versões antigas ou de um desligamento inesperado.
+ */
+public class HologramManager {
+
+    // Altura do texto acima do bloco do totem
+    private static final double HEIGHT = 2.3;
+
+    private final JotageTotems plugin;
+    private final NamespacedKey hologramKey;
+    private final Map<UUID, TextDisplay> displays;
+    private final MessageArgs messageArgs;
+
+    public HologramManager(JotageTotems plugin) {
+        this.plugin = plugin;
+        this.hologramKey = new NamespacedKey(plugin, "totem_hologram");
+        this.displays = new HashMap<>();
+        this.messageArgs = new MessageArgs();
+    }
+
+    private boolean isEnabled() {
+        return plugin.getConfigManager().isTotemHolograms();
+    }
+
+    /**
+     * Cria os hologramas dos chunks já carregados (startup).
+     * Esses chunks carregaram antes do plugin, então as sobras deles também são limpas aqui.
+     */
+    public void spawnLoaded() {
+        for (World world : plugin.getServer().getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                removeOrphans(List.of(chunk.getEntities()));
+                onChunkLoad(chunk);
+            }
+        }
+    }
+
+    public void onChunkLoad(Chunk chunk) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        for (Totem totem : plugin.getTotemManager().getTotemsInChunk(chunk.getWorld(), chunk.getX(), chunk.getZ())) {
+            spawn(totem);
+        }
+    }
+
+    public void onChunkUnload(Chunk chunk) {
+        if (displays.isEmpty()) {
+            return;
+        }
+
+        for (Totem totem : plugin.getTotemManager().getTotemsInChunk(chunk.getWorld(), chunk.getX(), chunk.getZ())) {
+            despawn(totem.getId());
+        }
+    }
+
+    /**
+     * Remove hologramas nossos que vieram do disco (não deveriam existir: são não persistentes).
+     */
+    public void removeOrphans(List<Entity> entities) {
+        for (Entity entity : entities) {
+            if (entity instanceof TextDisplay display && isHologram(display)) {
+                display.remove();
+            }
+        }
+    }
+
+    public void onTotemCreated(Totem totem) {
+        if (isEnabled() && totem.isChunkLoaded()) {
+            spawn(totem);
+        }
+    }
+
+    public void onTotemRemoved(UUID totemId) {
+        despawn(totemId);
+    }
+
+    // Atualiza o texto na mesma entidade (sem recriar)
+    public void onTotemChanged(Totem totem) {
+        TextDisplay display = displays.get(totem.getId());
+
+        if (display != null && display.isValid()) {
+            display.text(render(totem));
+        }
+    }
+
+    public void onOwnerNameChanged(UUID ownerId) {
+        if (displays.isEmpty()) {
+            return;
+        }
+
+        for (Totem totem : plugin.getTotemManager().getTotemsByOwner(ownerId)) {
+            onTotemChanged(totem);
+        }
+    }
+
+    public void removeAll() {
+        for (TextDisplay display : displays.values()) {
+            display.remove();
+        }
+
+        displays.clear();
+    }
+
+    private void spawn(Totem totem) {
+        TextDisplay existing = displays.get(totem.getId());
+        if (existing != null && existing.isValid()) {
+            return;
+        }
+
+        Location location = new Location(totem.getWorld(),
+                totem.getBlockX() + 0.5, totem.getBlockY() + HEIGHT, totem.getBlockZ() + 0.5);
+
+        TextDisplay display = totem.getWorld().spawn(location, TextDisplay.class, entity -> {
+            entity.setPersistent(false);
+            entity.setBillboard(Display.Billboard.CENTER);
+            entity.getPersistentDataContainer().set(hologramKey, PersistentDataType.BYTE, (byte) 1);
+            entity.text(render(totem));
+        });
+
+        displays.put(totem.getId(), display);
+    }
+
+    private void despawn(UUID totemId) {
+        TextDisplay display = displays.remove(totemId);
+
+        if (display != null) {
+            display.remove();
+        }
+    }
+
+    private boolean isHologram(TextDisplay display) {
+        return display.getPersistentDataContainer().has(hologramKey, PersistentDataType.BYTE);
+    }
+
+    private Component render(Totem totem) {
+        messageArgs.clear()
+                .set("name", totem.getName())
+                .set("owner", plugin.getPlayerDataManager().getOwnerDisplayName(totem.getOwnerId()))
+                .set("date", totem.getFormattedCreatedAt());
+
+        return plugin.getMessageManager().getComponent("hologram-text", messageArgs);
+    }
+}
@@ -1,6 +1,9 @@
 package com.jotage.jotageTotems.managers;
 
 import com.jotage.jotageTotems.JotageTotems;
+import com.jotage.jotageTotems.utils.MessageArgs;
+import com.jotage.jotageTotems.utils.MessageTemplate;
+import net.kyori.adventure.text.Component;
 import org.bukkit.ChatColor;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -10,7 +13,10 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MessageManager {
 
@@ -18,12 +24,15 @@ public class MessageManager {
     private File messagesFile;
     private FileConfiguration messages;
 
+    private String rawPrefix;
     private String prefix;
 
+    // Mensagens compiladas (prefixo e cores já aplicados); trocado inteiro no reload
+    private volatile Map<String, MessageTemplate> templates;
+
     public MessageManager(JotageTotems plugin) {
         this.plugin = plugin;
         loadMessages();
-        reload();
     }
 
     public void loadMessages() {
@@ -40,6 +49,10 @@ public class MessageManager {
             plugin.saveResource("messages.yml", false);
         }
 
+        reload();
+    }
+
+    public void reload() {
         // Carrega o arquivo YAML
         messages = YamlConfiguration.loadConfiguration(messagesFile);
 
@@ -54,12 +67,43 @@ public class MessageManager {
         }
 
         //Cacheio o prefixo
-        prefix = colorize(messages.getString("prefix", "&8[&5Totem&8]&r"));
+        rawPrefix = messages.getString("prefix", "&8[&5Totem&8]&r");
+        prefix = colorize(rawPrefix);
+
+        compileTemplates();
     }
 
-    public void reload() {
-        messages = YamlConfiguration.loadConfiguration(messagesFile);
-        prefix = colorize(messages.getString("prefix", "&8[&5Totem&8]&r"));
+    private void compileTemplates() {
+        Map<String, MessageTemplate> compiled = new ConcurrentHashMap<>();
+
+        // Chaves do arquivo e do padrão do JAR
+        for (String key : messages.getKeys(true)) {
+            compileInto(compiled, key);
+        }
+        if (messages.getDefaults() != null) {
+            for (String key : messages.getDefaults().getKeys(true)) {
+                compileInto(compiled, key);
+            }
+        }
+
+        templates = compiled;
+    }
+
+    private void compileInto(Map<String, MessageTemplate> compiled, String key) {
+        if (compiled.containsKey(key)) {
+            return;
+        }
+
+        // Substitui {prefix} pelo prefixo (ainda no formato '&', as cores são resolvidas na compilação)
+        if (messages.isString(key)) {
+            compiled.put(key, MessageTemplate.compile(messages.getString(key).replace("{prefix}", rawPrefix)));
+        } else if (messages.isList(key)) {
+            List<String> lines = new ArrayList<>();
+            for (String line : messages.getStringList(key)) {
+                lines.add(line.replace("{prefix}", rawPrefix));
+            }
+            compiled.put(key, MessageTemplate.compile(lines));
+        }
     }
 
     public void save() {
@@ -70,38 +114,62 @@ public class MessageManager {
         }
     }
 
-    public String getMessage(String key) {
-        String message = messages.getString(key);
+    public MessageTemplate getTemplate(String key) {
+        MessageTemplate template = templates.get(key);
 
-        if (message == null) {
+        if (template == null) {
             plugin.getLogger().warning("Mensagem não encontrada: " + key);
-            return colorize("&cMensagem não encontrada: " + key);
+            // Guarda o aviso compilado para não repetir o log a cada envio
+            template = MessageTemplate.compile("&cMensagem não encontrada: " + key);
+            templates.put(key, template);
         }
 
-        // Substitui {prefix} pelo prefixo
-        message = message.replace("{prefix}", prefix);
+        return template;
+    }
+
+    public String getMessage(String key) {
+        return getTemplate(key).render();
+    }
 
-        return colorize(message);
+    public String getMessage(String key, MessageArgs args) {
+        return getTemplate(key).render(args);
     }
 
     public String getMessage(String key, Map<String, String> placeholders) {
-        String message = getMessage(key);
+        MessageArgs args = new MessageArgs(placeholders.size());
 
-        // Substitui cada placeholder
         for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            String placeholder = "{" + entry.getKey() + "}";
-            message = message.replace(placeholder, entry.getValue());
+            args.set(entry.getKey(), entry.getValue());
         }
 
-        return message;
+        return getMessage(key, args);
+    }
+
+    public Component getComponent(String key) {
+        return getTemplate(key).component();
     }
 
+    public Component getComponent(String key, MessageArgs args) {
+        return getTemplate(key).component(args);
+    }
+
+    // Envia como Component: o servidor não precisa parsear a string legada a cada envio
     public void sendMessage(Player player, String key) {
-        player.sendMessage(getMessage(key));
+        player.sendMessage(getComponent(key));
+    }
+
+    public void sendMessage(Player player, String key, MessageArgs args) {
+        player.sendMessage(getComponent(key, args));
     }
 
     public void sendMessage(Player player, String key, Map<String, String> placeholders) {
-        player.sendMessage(getMessage(key, placeholders));
+        MessageArgs args = new MessageArgs(placeholders.size());
+
+        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+            args.set(entry.getKey(), entry.getValue());
+        }
+
+        sendMessage(player, key, args);
     }
 
     private String colorize(String text) {
@@ -2,32 +2,72 @@ package com.jotage.jotageTotems.managers;
 
 import com.jotage.jotageTotems.JotageTotems;
 import com.jotage.jotageTotems.models.PlayerTotemData;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
+import com.jotage.jotageTotems.storage.BinaryIO;
+import com.jotage.jotageTotems.storage.MutationJournal;
+import com.jotage.jotageTotems.storage.PlayerRecord;
+import com.jotage.jotageTotems.storage.PlayerSnapshotCodec;
+import com.jotage.jotageTotems.storage.SnapshotFormat;
+import com.destroystokyo.paper.profile.PlayerProfile;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 
 public class PlayerDataManager {
 
+    // Operações do journal
+    private static final byte OP_REGISTER = 1;
+    private static final byte OP_UNREGISTER = 2;
+    private static final byte OP_UNREGISTER_ALL = 3;
+    private static final byte OP_CUSTOM_NAME = 4;
+    private static final byte OP_LAST_TELEPORT = 5;
+    private static final byte OP_PLAYER_NAME = 6;
+
     private final JotageTotems plugin;
     private final Map<UUID, PlayerTotemData> playersData;
+    // Índice reverso: totem -> jogadores que o registraram
+    private final Map<UUID, Set<UUID>> registrants;
+    // Cache de nomes (donos de totem no menu), preenchido no join e persistido com os dados
+    private final Map<UUID, String> knownNames;
+    // Nomes sendo buscados em segundo plano / que não foram encontrados nesta sessão
+    private final Set<UUID> resolvingNames;
+    private final Set<UUID> unresolvedNames;
+    private final MutationJournal<List<PlayerRecord>> journal;
+    private final SnapshotFormat snapshotFormat;
     private File dataFile;
 
     public PlayerDataManager(JotageTotems plugin) {
         this.plugin = plugin;
         this.playersData = new HashMap<>();
+        this.registrants = new HashMap<>();
+        this.knownNames = new HashMap<>();
+        this.resolvingNames = new HashSet<>();
+        this.unresolvedNames = new HashSet<>();
+        this.snapshotFormat = plugin.getConfigManager().getSnapshotFormat();
 
         setupFile();
+
+        this.journal = new MutationJournal<>(
+                plugin,
+                new File(plugin.getDataFolder(), "playerdata.journal"),
+                plugin.getConfigManager().getJournalCompactThresholdBytes(),
+                this::snapshot,
+                this::writeSnapshot
+        );
     }
 
     private void setupFile() {
-        dataFile = new File(plugin.getDataFolder(), "playerdata.yml");
+        dataFile = new File(plugin.getDataFolder(), "playerdata" + snapshotFormat.getExtension());
 
-        if (!dataFile.exists()) {
+        // O snapshot binário só é criado na primeira compactação.
+        // Se existir o snapshot do outro formato, não cria o .yml vazio: ele é migrado no loadFromFile
+        File otherFile = new File(plugin.getDataFolder(), "playerdata" + snapshotFormat.other().getExtension());
+        if (snapshotFormat == SnapshotFormat.YAML && !dataFile.exists() && !otherFile.exists()) {
             try {
                 dataFile.createNewFile();
                 plugin.getLogger().info("Arquivo playerdata.yml criado");
@@ -37,19 +77,31 @@ public class PlayerDataManager {
         }
     }
 
+    /**
+     * Dados do jogador, criando se não existirem. Use só em escritas:
+     * o registro criado passa a ir para o playerdata.
+     */
     public PlayerTotemData getPlayerData(UUID playerId) {
         // Se já existe na memória, retorna
-        if (playersData.containsKey(playerId)) {
-            return playersData.get(playerId);
+        PlayerTotemData data = playersData.get(playerId);
+        if (data != null) {
+            return data;
         }
 
         // Se não existe, cria novo
-        PlayerTotemData data = new PlayerTotemData(playerId);
+        data = new PlayerTotemData(playerId);
         playersData.put(playerId, data);
 
         return data;
     }
 
+    /**
+     * Dados do jogador sem criar nada (null se ele nunca usou totems). Use nas leituras.
+     */
+    public PlayerTotemData findPlayerData(UUID playerId) {
+        return playersData.get(playerId);
+    }
+
     public PlayerTotemData getPlayerData(Player player) {
         return getPlayerData(player.getUniqueId());
     }
@@ -58,65 +110,143 @@ public class PlayerDataManager {
         return playersData.containsKey(playerId);
     }
 
+    // Quem tem dados de totem ou nome já guardado (ex.: dono de algum totem)
+    public boolean isKnownPlayer(UUID playerId) {
+        return playersData.containsKey(playerId) || knownNames.containsKey(playerId);
+    }
+
     public boolean registerTotem(UUID playerId, UUID totemId) {
         PlayerTotemData data = getPlayerData(playerId);
-        return data.registerTotem(totemId);
+
+        if (!addRegistration(data, totemId)) {
+            return false;
+        }
+
+        journal.append(out -> {
+            out.writeByte(OP_REGISTER);
+            BinaryIO.writeUuid(out, playerId);
+            BinaryIO.writeUuid(out, totemId);
+        });
+        return true;
     }
 
-    public boolean unregisterTotem(UUID playerId, UUID totemId) {
-        PlayerTotemData data = getPlayerData(playerId);
-        return data.unregisterTotem(totemId);
+    public boolean hasTotemRegistered(UUID playerId, UUID totemId) {
+        PlayerTotemData data = playersData.get(playerId);
+        return data != null && data.hasTotemRegistered(totemId);
     }
 
-    public void unregisterTotemFromAll(UUID totemId) {
-        int removed = 0;
+    public boolean unregisterTotem(UUID playerId, UUID totemId) {
+        PlayerTotemData data = playersData.get(playerId);
 
-        for (PlayerTotemData data : playersData.values()) {
-            if (data.unregisterTotem(totemId)) {
-                removed++;
-            }
+        if (data == null || !removeRegistration(data, totemId)) {
+            return false;
         }
 
+        journal.append(out -> {
+            out.writeByte(OP_UNREGISTER);
+            BinaryIO.writeUuid(out, playerId);
+            BinaryIO.writeUuid(out, totemId);
+        });
+        return true;
+    }
+
+    public void unregisterTotemFromAll(UUID totemId) {
+        int removed = removeAllRegistrations(totemId);
+
         if (removed > 0) {
+            journal.append(out -> {
+                out.writeByte(OP_UNREGISTER_ALL);
+                BinaryIO.writeUuid(out, totemId);
+            });
             plugin.getLogger().info("Totem desregistrado de " + removed + " jogadores");
         }
     }
 
-    public void setCustomName(UUID playerId, UUID totemId, String customName) {
-        PlayerTotemData data = getPlayerData(playerId);
-        data.setCustomName(totemId, customName);
+    public int getRegistrantCount(UUID totemId) {
+        Set<UUID> players = registrants.get(totemId);
+        return players == null ? 0 : players.size();
     }
 
-    public String getCustomName(UUID playerId, UUID totemId) {
-        PlayerTotemData data = getPlayerData(playerId);
-        return data.getCustomName(totemId);
+    public Set<UUID> getRegistrants(UUID totemId) {
+        Set<UUID> players = registrants.get(totemId);
+        return players == null ? Collections.emptySet() : Collections.unmodifiableSet(players);
     }
 
-    public void setPendingBreak(UUID playerId, UUID totemId) {
-        PlayerTotemData data = getPlayerData(playerId);
-        data.setPendingBreak(totemId);
+    private boolean addRegistration(PlayerTotemData data, UUID totemId) {
+        if (!data.registerTotem(totemId)) {
+            return false;
+        }
+
+        registrants.computeIfAbsent(totemId, k -> new HashSet<>()).add(data.getPlayerId());
+        return true;
     }
 
-    public void clearPendingBreak(UUID playerId) {
-        PlayerTotemData data = getPlayerData(playerId);
-        data.clearPendingBreak();
+    private boolean removeRegistration(PlayerTotemData data, UUID totemId) {
+        if (!data.unregisterTotem(totemId)) {
+            return false;
+        }
+
+        Set<UUID> players = registrants.get(totemId);
+        if (players != null) {
+            players.remove(data.getPlayerId());
+            if (players.isEmpty()) {
+                registrants.remove(totemId);
+            }
+        }
+        return true;
     }
 
-    public boolean isPendingBreakFor(UUID playerId, UUID totemId) {
-        PlayerTotemData data = getPlayerData(playerId);
-        return data.isPendingBreakFor(totemId);
+    // Só visita os jogadores que registraram o totem, não todos os carregados
+    private int removeAllRegistrations(UUID totemId) {
+        Set<UUID> players = registrants.remove(totemId);
+
+        if (players == null) {
+            return 0;
+        }
+
+        int removed = 0;
+        for (UUID playerId : players) {
+            PlayerTotemData data = playersData.get(playerId);
+            if (data != null && data.unregisterTotem(totemId)) {
+                removed++;
+            }
+        }
+
+        return removed;
     }
 
-    public boolean isBreakConfirmationExpired(UUID playerId) {
+    public void setCustomName(UUID playerId, UUID totemId, String customName) {
         PlayerTotemData data = getPlayerData(playerId);
-        long confirmationTime = plugin.getConfigManager().getBreakConfirmationMillis();
-        return data.isBreakConfirmationExpired(confirmationTime);
+        String oldName = data.getCustomName(totemId);
+        data.setCustomName(totemId, customName);
+
+        // Atualiza o item no menu aberto do jogador
+        if (plugin.getTotemMenu() != null) {
+            plugin.getTotemMenu().onCustomNameChanged(playerId, totemId, oldName);
+        }
+
+        // Nome vazio no journal = custom name removido
+        String storedName = data.getCustomName(totemId);
+        journal.append(out -> {
+            out.writeByte(OP_CUSTOM_NAME);
+            BinaryIO.writeUuid(out, playerId);
+            BinaryIO.writeUuid(out, totemId);
+            out.writeUTF(storedName == null ? "" : storedName);
+        });
     }
 
-    public boolean canTeleport(UUID playerId) {
-        PlayerTotemData data = getPlayerData(playerId);
+    public String getCustomName(UUID playerId, UUID totemId) {
+        PlayerTotemData data = playersData.get(playerId);
+        return data == null ? null : data.getCustomName(totemId);
+    }
 
-        long lastTeleport = data.getLastTeleportTime();
+    private long getLastTeleportTime(UUID playerId) {
+        PlayerTotemData data = playersData.get(playerId);
+        return data == null ? 0 : data.getLastTeleportTime();
+    }
+
+    public boolean canTeleport(UUID playerId) {
+        long lastTeleport = getLastTeleportTime(playerId);
 
         // Se nunca teleportou, pode teleportar
         if (lastTeleport == 0) {
@@ -130,9 +260,7 @@ public class PlayerDataManager {
     }
 
     public long getRemainingCooldown(UUID playerId) {
-        PlayerTotemData data = getPlayerData(playerId);
-
-        long lastTeleport = data.getLastTeleportTime();
+        long lastTeleport = getLastTeleportTime(playerId);
 
         if (lastTeleport == 0) {
             return 0;
@@ -149,123 +277,264 @@ public class PlayerDataManager {
     public void updateLastTeleport(UUID playerId) {
         PlayerTotemData data = getPlayerData(playerId);
         data.updateLastTeleport();
+
+        long lastTeleport = data.getLastTeleportTime();
+        journal.append(out -> {
+            out.writeByte(OP_LAST_TELEPORT);
+            BinaryIO.writeUuid(out, playerId);
+            out.writeLong(lastTeleport);
+        });
     }
 
-    public void saveToFile() {
-        FileConfiguration config = new YamlConfiguration();
+    // ========== NOMES DE JOGADORES ==========
 
-        for (PlayerTotemData data : playersData.values()) {
-            String path = "players." + data.getPlayerId().toString();
+    /**
+     * Guarda o nome atual do jogador (join de quem usa totems, e criação de totem).
+     * Só grava no journal se o nome mudou.
+     */
+    public void rememberName(UUID playerId, String name) {
+        unresolvedNames.remove(playerId);
 
-            // Salva totems registrados
-            List<String> registeredList = new ArrayList<>();
-            for (UUID totemId : data.getRegisteredTotems()) {
-                registeredList.add(totemId.toString());
-            }
-            config.set(path + ".registered-totems", registeredList);
+        String previous = knownNames.put(playerId, name);
+        if (name.equals(previous)) {
+            return;
+        }
+
+        journal.append(out -> {
+            out.writeByte(OP_PLAYER_NAME);
+            BinaryIO.writeUuid(out, playerId);
+            out.writeUTF(name);
+        });
+
+        notifyNameChanged(playerId);
+    }
 
-            // Salva nomes customizados
-            if (!data.getCustomTotemNames().isEmpty()) {
-                for (Map.Entry<UUID, String> entry : data.getCustomTotemNames().entrySet()) {
-                    String customPath = path + ".custom-names." + entry.getKey().toString();
-                    config.set(customPath, entry.getValue());
+    // Atualiza menus abertos e hologramas que mostravam o nome antigo (ou o placeholder)
+    private void notifyNameChanged(UUID playerId) {
+        if (plugin.getTotemMenu() != null) {
+            plugin.getTotemMenu().onOwnerNameChanged(playerId);
+        }
+
+        if (plugin.getHologramManager() != null) {
+            plugin.getHologramManager().onOwnerNameChanged(playerId);
+        }
+    }
+
+    /**
+     * Nome em cache, sem bloquear. Se não estiver em cache, retorna null e
+     * começa a busca em segundo plano; quando terminar, os menus são atualizados.
+     */
+    public String getCachedName(UUID playerId) {
+        String name = knownNames.get(playerId);
+
+        // Com o plugin desligando não se agenda mais nada: fica o placeholder
+        if (name == null && plugin.isEnabled() && !unresolvedNames.contains(playerId) && resolvingNames.add(playerId)) {
+            resolveNameAsync(playerId);
+        }
+
+        return name;
+    }
+
+    // Se a busca já terminou sem encontrar o nome
+    public boolean isNameUnresolved(UUID playerId) {
+        return unresolvedNames.contains(playerId);
+    }
+
+    /**
+     * Nome do dono para exibir (menu, holograma). Sem nome em cache, mostra um placeholder
+     * e a busca em segundo plano atualiza quem exibe quando terminar.
+     */
+    public String getOwnerDisplayName(UUID ownerId) {
+        String name = getCachedName(ownerId);
+
+        if (name != null) {
+            return name;
+        }
+
+        return isNameUnresolved(ownerId) ? "Desconhecido" : "Carregando...";
+    }
+
+    private void resolveNameAsync(UUID playerId) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            // Cache de usuários do servidor e, se preciso, consulta ao perfil (fora da main thread)
+            PlayerProfile profile = Bukkit.createProfile(playerId);
+            String name = profile.complete(false) ? profile.getName() : null;
+
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                resolvingNames.remove(playerId);
+
+                if (name != null) {
+                    rememberName(playerId, name);
+                } else {
+                    unresolvedNames.add(playerId);
+                    notifyNameChanged(playerId);
                 }
+            });
+        });
+    }
+
+    /**
+     * Compacta o journal uma última vez e aguarda a escrita terminar (usado no onDisable).
+     */
+    public void shutdown() {
+        journal.shutdown(plugin.getConfigManager().getSaveShutdownTimeoutMillis());
+    }
+
+    private List<PlayerRecord> snapshot() {
+        List<PlayerRecord> records = new ArrayList<>(playersData.size());
+
+        for (PlayerTotemData data : playersData.values()) {
+            records.add(new PlayerRecord(
+                    data.getPlayerId(),
+                    List.copyOf(data.getRegistrationOrder()),
+                    Map.copyOf(data.getCustomTotemNames()),
+                    data.getLastTeleportTime(),
+                    knownNames.get(data.getPlayerId())
+            ));
+        }
+
+        // Jogadores conhecidos só pelo nome (ex.: donos que nunca registraram totems)
+        for (Map.Entry<UUID, String> entry : knownNames.entrySet()) {
+            if (!playersData.containsKey(entry.getKey())) {
+                records.add(new PlayerRecord(entry.getKey(), List.of(), Map.of(), 0, entry.getValue()));
             }
+        }
+
+        return records;
+    }
+
+    // Roda na thread do journal
+    private void writeSnapshot(List<PlayerRecord> records) throws IOException {
+        PlayerSnapshotCodec.write(dataFile, snapshotFormat, records);
+        plugin.getLogger().info("Salvos dados de " + records.size() + " jogadores");
+    }
+
+    public void loadFromFile() {
+        loadSnapshot();
 
-            // Salva último teleporte
-            config.set(path + ".last-teleport", data.getLastTeleportTime());
+        // Reaplica as mudanças feitas depois do último snapshot
+        int replayed = journal.replay(this::replay);
+        if (replayed > 0) {
+            plugin.getLogger().info("Reaplicadas " + replayed + " mudanças de playerdata.journal");
         }
 
         try {
-            config.save(dataFile);
-            plugin.getLogger().info("Salvos dados de " + playersData.size() + " jogadores");
+            journal.open();
         } catch (IOException e) {
-            plugin.getLogger().severe("Erro ao salvar playerdata.yml: " + e.getMessage());
-            e.printStackTrace();
+            plugin.getLogger().severe("Erro ao abrir playerdata.journal: " + e.getMessage());
         }
     }
 
-    public void loadFromFile() {
-        if (!dataFile.exists()) {
-            plugin.getLogger().info("Nenhum dado de jogador encontrado");
-            return;
+    private void replay(DataInputStream in) throws IOException {
+        byte op = in.readByte();
+
+        switch (op) {
+            case OP_REGISTER -> addRegistration(getPlayerData(BinaryIO.readUuid(in)), BinaryIO.readUuid(in));
+            case OP_UNREGISTER -> {
+                PlayerTotemData data = playersData.get(BinaryIO.readUuid(in));
+                UUID totemId = BinaryIO.readUuid(in);
+                if (data != null) {
+                    removeRegistration(data, totemId);
+                }
+            }
+            case OP_UNREGISTER_ALL -> removeAllRegistrations(BinaryIO.readUuid(in));
+            case OP_CUSTOM_NAME -> {
+                PlayerTotemData data = getPlayerData(BinaryIO.readUuid(in));
+                UUID totemId = BinaryIO.readUuid(in);
+                data.setCustomName(totemId, in.readUTF());
+            }
+            case OP_LAST_TELEPORT -> getPlayerData(BinaryIO.readUuid(in)).setLastTeleportTime(in.readLong());
+            case OP_PLAYER_NAME -> knownNames.put(BinaryIO.readUuid(in), in.readUTF());
+            default -> throw new IOException("Operação desconhecida: " + op);
         }
+    }
 
-        FileConfiguration config = YamlConfiguration.loadConfiguration(dataFile);
-        ConfigurationSection playersSection = config.getConfigurationSection("players");
+    private void loadSnapshot() {
+        List<PlayerRecord> records;
 
-        if (playersSection == null) {
+        try {
+            records = readSnapshot();
+        } catch (IOException e) {
+            // Não segue com dados vazios: a próxima compactação apagaria o snapshot
+            throw new IllegalStateException("Erro ao ler " + dataFile.getName() + ": " + e.getMessage(), e);
+        }
+
+        if (records.isEmpty()) {
             plugin.getLogger().info("Nenhum dado de jogador encontrado");
             return;
         }
 
-        int loaded = 0;
-        int errors = 0;
+        for (PlayerRecord record : records) {
+            if (record.name() != null) {
+                knownNames.put(record.playerId(), record.name());
+            }
 
-        for (String playerIdString : playersSection.getKeys(false)) {
-            try {
-                String path = "players." + playerIdString;
-
-                UUID playerId = UUID.fromString(playerIdString);
-                PlayerTotemData data = new PlayerTotemData(playerId);
-
-                // Carrega totems registrados
-                List<String> registeredList = config.getStringList(path + ".registered-totems");
-                for (String totemIdString : registeredList) {
-                    try {
-                        UUID totemId = UUID.fromString(totemIdString);
-                        data.registerTotem(totemId);
-                    } catch (IllegalArgumentException e) {
-                        plugin.getLogger().warning("UUID de totem inválido: " + totemIdString);
-                    }
-                }
+            if (record.isNameOnly()) {
+                continue;
+            }
 
-                // Carrega nomes customizados
-                ConfigurationSection customNamesSection = config.getConfigurationSection(path + ".custom-names");
-                if (customNamesSection != null) {
-                    for (String totemIdString : customNamesSection.getKeys(false)) {
-                        try {
-                            UUID totemId = UUID.fromString(totemIdString);
-                            String customName = config.getString(path + ".custom-names." + totemIdString);
-                            data.setCustomName(totemId, customName);
-                        } catch (IllegalArgumentException e) {
-                            plugin.getLogger().warning("UUID de totem inválido em custom names: " + totemIdString);
-                        }
-                    }
-                }
+            PlayerTotemData data = new PlayerTotemData(record.playerId());
 
-                // Carrega último teleporte
-                long lastTeleport = config.getLong(path + ".last-teleport", 0);
-                data.setLastTeleportTime(lastTeleport);
+            // Adiciona ao mapa antes de registrar, para o índice reverso
+            playersData.put(record.playerId(), data);
 
-                // Adiciona ao mapa
-                playersData.put(playerId, data);
-                loaded++;
+            for (UUID totemId : record.registeredTotems()) {
+                addRegistration(data, totemId);
+            }
 
-            } catch (Exception e) {
-                plugin.getLogger().warning("Erro ao carregar dados do jogador " + playerIdString + ": " + e.getMessage());
-                errors++;
+            for (Map.Entry<UUID, String> entry : record.customNames().entrySet()) {
+                data.setCustomName(entry.getKey(), entry.getValue());
             }
-        }
 
-        plugin.getLogger().info("Carregados dados de " + loaded + " jogadores");
-        if (errors > 0) {
-            plugin.getLogger().warning(errors + " jogadores falharam ao carregar");
+            data.setLastTeleportTime(record.lastTeleport());
         }
+
+        plugin.getLogger().info("Carregados dados de " + records.size() + " jogadores");
     }
 
-    public void savePlayerData(UUID playerId) {
-        if (!playersData.containsKey(playerId)) {
-            return;
+    private List<PlayerRecord> readSnapshot() throws IOException {
+        SnapshotFormat otherFormat = snapshotFormat.other();
+        File otherFile = new File(plugin.getDataFolder(), "playerdata" + otherFormat.getExtension());
+
+        // Migração única quando o storage.format muda (yaml -> binary ou binary -> yaml).
+        // Um .yml vazio (criado por versões antigas ao voltar para yaml) conta como ausente
+        boolean missing = !dataFile.exists() || dataFile.length() == 0;
+        if (missing && otherFile.exists() && otherFile.length() > 0) {
+            List<PlayerRecord> records = PlayerSnapshotCodec.read(otherFile, otherFormat, plugin.getLogger());
+            PlayerSnapshotCodec.write(dataFile, snapshotFormat, records);
+
+            File migratedFile = new File(plugin.getDataFolder(), otherFile.getName() + ".migrated");
+            try {
+                Files.move(otherFile.toPath(), migratedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Não foi possível renomear " + otherFile.getName() + " após a migração: " + e.getMessage());
+            }
+
+            plugin.getLogger().info("Migrados dados de " + records.size() + " jogadores de " + otherFile.getName() +
+                    " para " + dataFile.getName());
+            return records;
         }
 
-        // Para simplificar, apenas salva tudo
-        // Em produção, você poderia otimizar salvando apenas um jogador
-        saveToFile();
+        return PlayerSnapshotCodec.read(dataFile, snapshotFormat, plugin.getLogger());
     }
 
     public void unloadPlayerData(UUID playerId) {
-        playersData.remove(playerId);
+        PlayerTotemData data = playersData.remove(playerId);
+
+        if (data == null) {
+            return;
+        }
+
+        // Mantém o índice reverso consistente com os dados em memória
+        for (UUID totemId : data.getRegisteredTotems()) {
+            Set<UUID> players = registrants.get(totemId);
+            if (players != null) {
+                players.remove(playerId);
+                if (players.isEmpty()) {
+                    registrants.remove(totemId);
+                }
+            }
+        }
     }
 
     public int getLoadedPlayersCount() {
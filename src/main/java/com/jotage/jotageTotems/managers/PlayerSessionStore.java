@@ -0,0 +1,102 @@
+package com.jotage.jotageTotems.managers;
+
+import com.jotage.jotageTotems.JotageTotems;
+import com.jotage.jotageTotems.utils.WheelTicker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Estado temporário de sessão dos jogadores (hoje: confirmação de quebra de totem).
+ * Fica só em memória, nunca vai para o playerdata, e cada entrada some sozinha quando expira.
+ * Só existe entrada para quem está no meio de uma ação. Não é thread-safe: use na main thread.
+ */
+public class PlayerSessionStore {
+
+    // Quebra de totem aguardando o segundo golpe
+    private static final class PendingBreak {
+
+        private final UUID playerId;
+        private final UUID totemId;
+        private final long expiresAt;
+
+        private PendingBreak(UUID playerId, UUID totemId, long expiresAt) {
+            this.playerId = playerId;
+            this.totemId = totemId;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now > expiresAt;
+        }
+    }
+
+    private final JotageTotems plugin;
+    private final Map<UUID, PendingBreak> pendingBreaks;
+
+    // Remove as entradas vencidas mesmo que o jogador nunca mais quebre o bloco
+    private final WheelTicker<PendingBreak> expiryWheel;
+
+    public PlayerSessionStore(JotageTotems plugin) {
+        this.plugin = plugin;
+        this.pendingBreaks = new HashMap<>();
+        this.expiryWheel = new WheelTicker<>(plugin, 64, this::expire);
+    }
+
+    // ========== CONFIRMAÇÃO DE QUEBRA ==========
+
+    public void setPendingBreak(UUID playerId, UUID totemId) {
+        long confirmationMillis = plugin.getConfigManager().getBreakConfirmationMillis();
+        PendingBreak pending = new PendingBreak(playerId, totemId, System.currentTimeMillis() + confirmationMillis);
+
+        pendingBreaks.put(playerId, pending);
+
+        expiryWheel.schedule(pending, plugin.getConfigManager().getBreakConfirmationTime() * 20L);
+    }
+
+    public void clearPendingBreak(UUID playerId) {
+        pendingBreaks.remove(playerId);
+    }
+
+    /**
+     * Se o jogador tem uma quebra pendente, ainda no prazo, para este totem.
+     * O prazo é conferido pelo relógio também: com o servidor atrasado os ticks demoram mais que 50 ms.
+     */
+    public boolean isPendingBreakFor(UUID playerId, UUID totemId) {
+        PendingBreak pending = pendingBreaks.get(playerId);
+
+        if (pending == null) {
+            return false;
+        }
+
+        if (pending.isExpired(System.currentTimeMillis())) {
+            pendingBreaks.remove(playerId);
+            return false;
+        }
+
+        return pending.totemId.equals(totemId);
+    }
+
+    public boolean hasPendingBreak(UUID playerId) {
+        return pendingBreaks.containsKey(playerId);
+    }
+
+    // ========== SESSÃO ==========
+
+    // Descarta tudo do jogador (quit)
+    public void clear(UUID playerId) {
+        pendingBreaks.remove(playerId);
+    }
+
+    public void stop() {
+        expiryWheel.stop();
+
+        pendingBreaks.clear();
+    }
+
+    private void expire(PendingBreak pending) {
+        // Só remove se ainda for a mesma entrada (pode ter sido substituída por uma mais nova)
+        pendingBreaks.remove(pending.playerId, pending);
+    }
+}
@@ -106,19 +106,13 @@ public class RecipeManager {
     }
 
     public boolean isTotemItem(ItemStack item) {
-        // Verifica se o item existe
+        // Pré-checagem barata: qualquer outro item sai aqui
         if (item == null || item.getType() != Material.TOTEM_OF_UNDYING) {
             return false;
         }
 
-        // Verifica se tem meta
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null) {
-            return false;
-        }
-
-        // Verifica se tem o marker no PersistentDataContainer
-        return meta.getPersistentDataContainer().has(totemKey, PersistentDataType.BYTE);
+        // Lê o marker pela view somente-leitura do PDC, sem copiar o ItemMeta
+        return item.getPersistentDataContainer().has(totemKey, PersistentDataType.BYTE);
     }
 
     public boolean isTotemItemByName(ItemStack item) {
@@ -3,12 +3,15 @@ package com.jotage.jotageTotems.managers;
 import com.jotage.jotageTotems.JotageTotems;
 import com.jotage.jotageTotems.models.TeleportTask;
 import com.jotage.jotageTotems.models.Totem;
-import org.bukkit.Bukkit;
+import com.jotage.jotageTotems.utils.BlockKey;
+import com.jotage.jotageTotems.utils.LongObjectMap;
+import com.jotage.jotageTotems.utils.MessageArgs;
+import com.jotage.jotageTotems.utils.WheelTicker;
 import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -16,18 +19,34 @@ import java.util.UUID;
 
 public class TeleportHandler {
 
+    // Intervalo entre os avisos da contagem (1 segundo)
+    private static final int STEP_TICKS = 20;
+
     private final JotageTotems plugin;
     private final Map<UUID, TeleportTask> activeTeleports;
 
+    // Um único driver por tick avança todas as contagens ativas
+    private final WheelTicker<TeleportTask> wheel;
+    private final Location scratchLocation;
+    private final MessageArgs messageArgs;
+
+    // Chunks de destino segurados por ticket: mundo -> chunk -> nº de contagens usando
+    private final Map<UUID, LongObjectMap<Integer>> heldChunks;
+
     public TeleportHandler(JotageTotems plugin) {
         this.plugin = plugin;
         this.activeTeleports = new HashMap<>();
+        this.wheel = new WheelTicker<>(plugin, 64, this::step);
+        this.scratchLocation = new Location(null, 0, 0, 0);
+        this.messageArgs = new MessageArgs();
+        this.heldChunks = new HashMap<>();
     }
 
     public boolean startTeleport(Player player, Totem destination) {
         UUID playerId = player.getUniqueId();
 
         // ===== VALIDAÇÃO 1: Teleporte já ativo? =====
+        // Inclui o que já está a caminho: cooldown e XP só são cobrados quando ele chega
         if (activeTeleports.containsKey(playerId)) {
             plugin.getMessageManager().sendMessage(player, "teleport-already-active");
             return false;
@@ -43,88 +62,86 @@ public class TeleportHandler {
         if (!plugin.getPlayerDataManager().canTeleport(playerId)) {
             long remaining = plugin.getPlayerDataManager().getRemainingCooldown(playerId);
 
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("time", String.valueOf(remaining));
-
-            plugin.getMessageManager().sendMessage(player, "error-cooldown", placeholders);
+            messageArgs.clear().set("time", remaining);
+            plugin.getMessageManager().sendMessage(player, "error-cooldown", messageArgs);
             return false;
         }
 
         // ===== VALIDAÇÃO 4: XP =====
         int xpCost = plugin.getConfigManager().getXpCost();
         if (player.getLevel() < xpCost) {
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("xp", String.valueOf(xpCost));
-
-            plugin.getMessageManager().sendMessage(player, "error-no-xp", placeholders);
+            messageArgs.clear().set("xp", xpCost);
+            plugin.getMessageManager().sendMessage(player, "error-no-xp", messageArgs);
             return false;
         }
 
         // ===== TUDO OK: INICIA TELEPORTE =====
 
-        int countdown = plugin.getConfigManager().getTeleportCountdown();
+        int countdownTicks = plugin.getConfigManager().getTeleportCountdownTicks();
 
         // Cria a TeleportTask
-        TeleportTask teleportTask = new TeleportTask(player, destination, countdown);
+        TeleportTask teleportTask = new TeleportTask(player, destination, countdownTicks);
 
         // Adiciona ao mapa de teleportes ativos
         activeTeleports.put(playerId, teleportTask);
 
+        // Começa a carregar o destino em paralelo com a contagem
+        holdDestinationChunk(teleportTask);
+
         // Mensagem inicial
         plugin.getMessageManager().sendMessage(player, "teleport-started");
 
-        // Agenda a task que roda a cada 1 segundo (20 ticks)
-        BukkitTask bukkitTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        // Primeiro passo imediato, já descontando o primeiro segundo (como a contagem sempre fez):
+        // com N segundos mostra N-1 ... 1 e teleporta após (N-1) segundos
+        teleportTask.advance(Math.min(STEP_TICKS, teleportTask.getRemainingTicks()));
+        step(teleportTask);
 
-            // ===== VERIFICA SE JOGADOR AINDA ESTÁ ONLINE =====
-            if (!teleportTask.isPlayerOnline()) {
-                cancelTeleport(player);
-                return;
-            }
+        return true;
+    }
 
-            // ===== VERIFICA SE JOGADOR SE MOVEU =====
-            if (teleportTask.hasPlayerMoved()) {
-                plugin.getMessageManager().sendMessage(player, "teleport-cancelled-moved");
-                cancelTeleport(player);
-                return;
-            }
+    private void step(TeleportTask teleportTask) {
+        Player player = teleportTask.getPlayer();
 
-            // ===== DECREMENTA CONTADOR =====
-            teleportTask.decrementCountdown();
-            int currentCount = teleportTask.getCountdown();
-
-            // ===== SE AINDA ESTÁ CONTANDO: Mostra mensagem e som =====
-            if (currentCount > 0) {
-                // Mensagem de contagem
-                Map<String, String> placeholders = new HashMap<>();
-                placeholders.put("seconds", String.valueOf(currentCount));
-                plugin.getMessageManager().sendMessage(player, "teleport-countdown", placeholders);
-
-                // Som de contagem
-                if (plugin.getConfigManager().isEffectsSounds()) {
-                    Sound countdownSound = plugin.getConfigManager().getCountdownSound();
-                    player.playSound(player.getLocation(), countdownSound, 1.0f, 1.0f);
-                }
-
-                // Partículas ao redor do jogador
-                if (plugin.getConfigManager().isEffectsParticles()) {
-                    spawnCountdownParticles(player.getLocation());
-                }
-            }
+        // ===== VERIFICA SE JOGADOR AINDA ESTÁ ONLINE =====
+        if (!teleportTask.isPlayerOnline()) {
+            cancelTeleport(player.getUniqueId());
+            return;
+        }
 
-            // ===== COUNTDOWN CHEGOU A 0: TELEPORTA! =====
-            if (teleportTask.isComplete()) {
-                executeTeleport(player, destination);
-                teleportTask.cancel();
-                activeTeleports.remove(playerId);
-            }
+        // ===== VERIFICA SE JOGADOR SE MOVEU =====
+        if (teleportTask.hasPlayerMoved(scratchLocation)) {
+            plugin.getMessageManager().sendMessage(player, "teleport-cancelled-moved");
+            cancelTeleport(player.getUniqueId());
+            return;
+        }
 
-        }, 0L, 20L); // Inicia imediatamente (0L), repete a cada 20 ticks (1 segundo)
+        // ===== COUNTDOWN CHEGOU A 0: TELEPORTA! =====
+        // Continua em activeTeleports até o teleportAsync terminar
+        if (teleportTask.isComplete()) {
+            teleportTask.setInFlight(true);
+            executeTeleport(teleportTask);
+            return;
+        }
 
-        // Guarda a BukkitTask no TeleportTask para poder cancelar depois
-        teleportTask.setTask(bukkitTask);
+        // ===== AINDA ESTÁ CONTANDO: Mostra mensagem e som =====
+        messageArgs.clear().set("seconds", teleportTask.getCountdown());
+        plugin.getMessageManager().sendMessage(player, "teleport-countdown", messageArgs);
 
-        return true;
+        // Som de contagem
+        if (plugin.getConfigManager().isEffectsSounds()) {
+            Sound countdownSound = plugin.getConfigManager().getCountdownSound();
+            player.playSound(player, countdownSound, 1.0f, 1.0f);
+        }
+
+        // Partículas ao redor do jogador
+        if (plugin.getConfigManager().isEffectsParticles()) {
+            spawnCountdownParticles(player.getLocation(scratchLocation));
+        }
+
+        // Próximo passo: daqui a 1 segundo, ou antes se faltar menos que isso
+        int delay = Math.min(STEP_TICKS, teleportTask.getRemainingTicks());
+        teleportTask.advance(delay);
+        teleportTask.setTimeout(wheel.schedule(teleportTask, delay));
     }
 
     public void cancelTeleport(Player player) {
@@ -132,12 +149,13 @@ public class TeleportHandler {
 
         TeleportTask task = activeTeleports.get(playerId);
 
-        if (task == null) {
-            return; // Não há teleporte ativo
+        if (task == null || task.isInFlight()) {
+            return; // Não há contagem ativa
         }
 
-        // Cancela a BukkitTask
+        // Tira a contagem da roda
         task.cancel();
+        releaseDestinationChunk(task);
 
         // Remove do mapa
         activeTeleports.remove(playerId);
@@ -146,8 +164,9 @@ public class TeleportHandler {
     public void cancelTeleport(UUID playerId) {
         TeleportTask task = activeTeleports.get(playerId);
 
-        if (task != null) {
+        if (task != null && !task.isInFlight()) {
             task.cancel();
+            releaseDestinationChunk(task);
             activeTeleports.remove(playerId);
         }
     }
@@ -155,15 +174,21 @@ public class TeleportHandler {
     public void cancelAllTeleports() {
         for (TeleportTask task : activeTeleports.values()) {
             task.cancel();
+            releaseDestinationChunk(task);
         }
 
+        int cancelled = activeTeleports.size();
         activeTeleports.clear();
 
-        plugin.getLogger().info("Cancelados " + activeTeleports.size() + " teleportes ativos");
+        wheel.stop();
+
+        plugin.getLogger().info("Cancelados " + cancelled + " teleportes ativos");
     }
 
+    // Se está na contagem (o teleporte já a caminho não conta: não pode mais ser cancelado)
     public boolean isTeleporting(Player player) {
-        return activeTeleports.containsKey(player.getUniqueId());
+        TeleportTask task = activeTeleports.get(player.getUniqueId());
+        return task != null && !task.isInFlight();
     }
 
     public int getActiveTeleportsCount() {
@@ -174,6 +199,67 @@ public class TeleportHandler {
         return activeTeleports.get(player.getUniqueId());
     }
 
+    // ========== PRÉ-CARREGAMENTO DO DESTINO ==========
+
+    private void holdDestinationChunk(TeleportTask teleportTask) {
+        Totem destination = teleportTask.getDestination();
+        World world = destination.getWorld();
+        int chunkX = destination.getChunkX();
+        int chunkZ = destination.getChunkZ();
+        long key = BlockKey.chunkKey(chunkX, chunkZ);
+
+        LongObjectMap<Integer> worldChunks = heldChunks.computeIfAbsent(world.getUID(), k -> new LongObjectMap<>());
+        Integer holders = worldChunks.get(key);
+        worldChunks.put(key, holders == null ? 1 : holders + 1);
+        teleportTask.setHoldingChunk(true);
+
+        if (holders != null) {
+            return; // Outra contagem já pediu este chunk
+        }
+
+        // Carrega (ou gera) fora da main thread; o ticket mantém o chunk até o teleporte
+        world.getChunkAtAsync(chunkX, chunkZ).thenAccept(chunk -> {
+            LongObjectMap<Integer> current = heldChunks.get(world.getUID());
+            if (current != null && current.containsKey(key)) {
+                chunk.addPluginChunkTicket(plugin);
+            }
+        });
+    }
+
+    private void releaseDestinationChunk(TeleportTask teleportTask) {
+        if (!teleportTask.isHoldingChunk()) {
+            return;
+        }
+
+        teleportTask.setHoldingChunk(false);
+
+        Totem destination = teleportTask.getDestination();
+        World world = destination.getWorld();
+        LongObjectMap<Integer> worldChunks = heldChunks.get(world.getUID());
+        if (worldChunks == null) {
+            return;
+        }
+
+        long key = BlockKey.chunkKey(destination.getChunkX(), destination.getChunkZ());
+        Integer holders = worldChunks.get(key);
+        if (holders == null) {
+            return;
+        }
+
+        if (holders > 1) {
+            worldChunks.put(key, holders - 1);
+            return;
+        }
+
+        // Última contagem para este chunk: libera o ticket
+        worldChunks.remove(key);
+        if (worldChunks.isEmpty()) {
+            heldChunks.remove(world.getUID());
+        }
+
+        world.removePluginChunkTicket(destination.getChunkX(), destination.getChunkZ(), plugin);
+    }
+
     private void spawnCountdownParticles(Location location) {
         Particle particle = plugin.getConfigManager().getEffectsParticleType();
 
@@ -183,8 +269,8 @@ public class TeleportHandler {
             double x = Math.cos(angle) * 0.5;    // Raio de 0.5 blocos
             double z = Math.sin(angle) * 0.5;
 
-            Location particleLoc = location.clone().add(x, 1, z);
-            location.getWorld().spawnParticle(particle, particleLoc, 1, 0, 0, 0, 0);
+            location.getWorld().spawnParticle(particle,
+                    location.getX() + x, location.getY() + 1, location.getZ() + z, 1, 0, 0, 0, 0);
         }
     }
 
@@ -198,16 +284,18 @@ public class TeleportHandler {
             double x = Math.cos(angle) * radius;
             double z = Math.sin(angle) * radius;
 
-            Location particleLoc = location.clone().add(x, y, z);
-            location.getWorld().spawnParticle(particle, particleLoc, 1, 0, 0, 0, 0);
+            location.getWorld().spawnParticle(particle,
+                    location.getX() + x, location.getY() + y, location.getZ() + z, 1, 0, 0, 0, 0);
         }
 
         // Explosão de partículas no centro
-        location.getWorld().spawnParticle(particle, location.clone().add(0, 1, 0), 50, 0.5, 0.5, 0.5, 0.1);
+        location.getWorld().spawnParticle(particle,
+                location.getX(), location.getY() + 1, location.getZ(), 50, 0.5, 0.5, 0.5, 0.1);
     }
 
-    private void executeTeleport(Player player, Totem destination) {
-        UUID playerId = player.getUniqueId();
+    private void executeTeleport(TeleportTask teleportTask) {
+        Player player = teleportTask.getPlayer();
+        Totem destination = teleportTask.getDestination();
 
         // Pega a location de teleporte (em cima do bloco)
         Location tpLocation = destination.getTeleportLocation();
@@ -223,7 +311,28 @@ public class TeleportHandler {
         }
 
         // ===== TELEPORTA O JOGADOR =====
-        player.teleport(tpLocation);
+        // O chunk de destino já foi carregado durante a contagem; teleportAsync não trava o tick
+        // whenComplete (e não thenAccept): mesmo se falhar com exceção o jogador sai de activeTeleports
+        player.teleportAsync(tpLocation).whenComplete((success, error) -> {
+            releaseDestinationChunk(teleportTask);
+            // Só agora libera um novo teleporte (o cancelAllTeleports pode já ter limpado o mapa)
+            activeTeleports.remove(player.getUniqueId(), teleportTask);
+
+            if (!player.isOnline()) {
+                return;
+            }
+
+            if (error != null || !success) {
+                plugin.getMessageManager().sendMessage(player, "teleport-failed");
+                return;
+            }
+
+            completeTeleport(player, destination, tpLocation);
+        });
+    }
+
+    private void completeTeleport(Player player, Totem destination, Location tpLocation) {
+        UUID playerId = player.getUniqueId();
 
         // ===== EFEITOS NO LOCAL DE CHEGADA =====
         if (plugin.getConfigManager().isEffectsParticles()) {
@@ -237,15 +346,14 @@ public class TeleportHandler {
 
         // ===== CONSOME XP =====
         int xpCost = plugin.getConfigManager().getXpCost();
-        player.setLevel(player.getLevel() - xpCost);
+        player.setLevel(Math.max(0, player.getLevel() - xpCost));
 
         // ===== ATUALIZA COOLDOWN =====
         plugin.getPlayerDataManager().updateLastTeleport(playerId);
 
         // ===== MENSAGEM DE SUCESSO =====
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("totem", destination.getName());
-        plugin.getMessageManager().sendMessage(player, "teleport-success", placeholders);
+        messageArgs.clear().set("totem", destination.getName());
+        plugin.getMessageManager().sendMessage(player, "teleport-success", messageArgs);
 
         plugin.getLogger().info("Jogador " + player.getName() + " teleportou para " + destination.getName());
     }
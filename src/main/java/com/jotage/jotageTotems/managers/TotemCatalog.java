@@ -0,0 +1,123 @@
+package com.jotage.jotageTotems.managers;
+
+import com.jotage.jotageTotems.storage.TotemRecord;
+
+import java.util.*;
+
+/**
+ * Versão imutável do catálogo de totems (por id e por dono), publicada pelo TotemManager.
+ * Pode ser lida de qualquer thread sem lock: quem segura uma instância vê sempre o mesmo estado.
+ * As mudanças de um tick são aplicadas juntas numa cópia nova com {@code version + 1} (copy-on-write).
+ */
+public final class TotemCatalog {
+
+    static final TotemCatalog EMPTY = new TotemCatalog(0, Map.of(), Map.of());
+
+    private final long version;
+    private final Map<UUID, TotemRecord> byId;
+    private final Map<UUID, List<TotemRecord>> byOwner;
+
+    private TotemCatalog(long version, Map<UUID, TotemRecord> byId, Map<UUID, List<TotemRecord>> byOwner) {
+        this.version = version;
+        this.byId = byId;
+        this.byOwner = byOwner;
+    }
+
+    /**
+     * Monta o catálogo de uma vez (carregamento do disco), sem uma cópia por totem.
+     */
+    static TotemCatalog of(long version, Collection<TotemRecord> records) {
+        Map<UUID, TotemRecord> byId = new HashMap<>(Math.max(16, records.size() * 2));
+        Map<UUID, List<TotemRecord>> owned = new HashMap<>();
+
+        for (TotemRecord record : records) {
+            byId.put(record.id(), record);
+            owned.computeIfAbsent(record.ownerId(), k -> new ArrayList<>()).add(record);
+        }
+
+        Map<UUID, List<TotemRecord>> byOwner = new HashMap<>(Math.max(16, owned.size() * 2));
+        for (Map.Entry<UUID, List<TotemRecord>> entry : owned.entrySet()) {
+            byOwner.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+
+        return new TotemCatalog(version, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byOwner));
+    }
+
+    /**
+     * Cópia com um lote de mudanças aplicado (valor null = totem removido).
+     * Os mapas são copiados uma vez por lote, não por mudança; só as listas dos donos afetados são
+     * recriadas, as outras são compartilhadas com a versão anterior.
+     */
+    TotemCatalog apply(Map<UUID, TotemRecord> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+
+        Map<UUID, TotemRecord> newById = new HashMap<>(byId);
+        Map<UUID, List<TotemRecord>> added = new HashMap<>();
+        Set<UUID> touchedOwners = new HashSet<>();
+
+        for (Map.Entry<UUID, TotemRecord> change : changes.entrySet()) {
+            TotemRecord record = change.getValue();
+            TotemRecord previous = record == null
+                    ? newById.remove(change.getKey())
+                    : newById.put(change.getKey(), record);
+
+            if (previous != null) {
+                touchedOwners.add(previous.ownerId());
+            }
+
+            if (record != null) {
+                touchedOwners.add(record.ownerId());
+                added.computeIfAbsent(record.ownerId(), k -> new ArrayList<>()).add(record);
+            }
+        }
+
+        Map<UUID, List<TotemRecord>> newByOwner = new HashMap<>(byOwner);
+
+        for (UUID ownerId : touchedOwners) {
+            List<TotemRecord> current = byOwner.getOrDefault(ownerId, List.of());
+            List<TotemRecord> updated = new ArrayList<>(current.size() + 1);
+
+            // Mantém os que não mudaram, na ordem, e acrescenta os novos/alterados
+            for (TotemRecord owned : current) {
+                if (!changes.containsKey(owned.id())) {
+                    updated.add(owned);
+                }
+            }
+            updated.addAll(added.getOrDefault(ownerId, List.of()));
+
+            if (updated.isEmpty()) {
+                newByOwner.remove(ownerId);
+            } else {
+                newByOwner.put(ownerId, Collections.unmodifiableList(updated));
+            }
+        }
+
+        return new TotemCatalog(version + 1, Collections.unmodifiableMap(newById), Collections.unmodifiableMap(newByOwner));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public TotemRecord get(UUID totemId) {
+        return byId.get(totemId);
+    }
+
+    public boolean contains(UUID totemId) {
+        return byId.containsKey(totemId);
+    }
+
+    public Collection<TotemRecord> getTotems() {
+        return byId.values();
+    }
+
+    public List<TotemRecord> getByOwner(UUID ownerId) {
+        return byOwner.getOrDefault(ownerId, List.of());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+}
@@ -2,37 +2,89 @@ package com.jotage.jotageTotems.managers;
 
 import com.jotage.jotageTotems.JotageTotems;
 import com.jotage.jotageTotems.models.Totem;
+import com.jotage.jotageTotems.storage.BinaryIO;
+import com.jotage.jotageTotems.storage.MutationJournal;
+import com.jotage.jotageTotems.storage.SnapshotFormat;
+import com.jotage.jotageTotems.storage.TotemRecord;
+import com.jotage.jotageTotems.storage.TotemSnapshotCodec;
+import com.jotage.jotageTotems.utils.BlockKey;
+import com.jotage.jotageTotems.utils.LongObjectMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Dono do estado dos totems. Só a main thread altera (create/remove/rename) e lê os índices;
+ * outras threads leem o {@link TotemCatalog}, republicado no máximo uma vez por tick.
+ */
 public class TotemManager {
 
+    // Operações do journal
+    private static final byte OP_CREATE = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte OP_RENAME = 3;
+
     private final JotageTotems plugin;
     private final Map<UUID, Totem> totems;
-    private final Map<Location, UUID> locationIndex;
+    // Mundo -> chave empacotada do bloco -> totem (lookup sem alocar Location)
+    private final Map<UUID, LongObjectMap<Totem>> blockIndex;
+    // Mundo -> chunk -> totems (consultas por proximidade)
+    private final TotemSpatialIndex spatialIndex;
+    // Dono -> ids dos totems dele (contagem O(1) para o limite por jogador)
+    private final Map<UUID, Set<UUID>> ownerIndex;
+    // Totems carregados do disco cujo chunk ainda não carregou: mundo -> chunk -> totems
+    private final Map<UUID, Map<Long, List<Totem>>> pendingValidation;
+    // Versão imutável publicada para leitura de qualquer thread (trocada inteira a cada publicação)
+    private volatile TotemCatalog catalog;
+    // Mudanças ainda não publicadas: id -> record novo (null = removido)
+    private final Map<UUID, TotemRecord> catalogChanges;
+    private boolean catalogPublishScheduled;
+    private final MutationJournal<List<TotemRecord>> journal;
+    private final SnapshotFormat snapshotFormat;
     private File totemsFile;
 
     public TotemManager(JotageTotems plugin) {
         this.plugin = plugin;
         this.totems = new HashMap<>();
-        this.locationIndex = new HashMap<>();
+        this.blockIndex = new HashMap<>();
+        this.spatialIndex = new TotemSpatialIndex();
+        this.ownerIndex = new HashMap<>();
+        this.pendingValidation = new HashMap<>();
+        this.catalog = TotemCatalog.EMPTY;
+        this.catalogChanges = new HashMap<>();
+        this.catalogPublishScheduled = false;
+        this.snapshotFormat = plugin.getConfigManager().getSnapshotFormat();
 
         setupFile();
+
+        this.journal = new MutationJournal<>(
+                plugin,
+                new File(plugin.getDataFolder(), "totems.journal"),
+                plugin.getConfigManager().getJournalCompactThresholdBytes(),
+                this::snapshot,
+                this::writeSnapshot
+        );
     }
 
     private void setupFile() {
-        totemsFile = new File(plugin.getDataFolder(), "totems.yml");
+        totemsFile = new File(plugin.getDataFolder(), "totems" + snapshotFormat.getExtension());
 
-        if (!totemsFile.exists()) {
+        // O snapshot binário só é criado na primeira compactação.
+        // Se existir o snapshot do outro formato, não cria o .yml vazio: ele é migrado no loadFromFile
+        File otherFile = new File(plugin.getDataFolder(), "totems" + snapshotFormat.other().getExtension());
+        if (snapshotFormat == SnapshotFormat.YAML && !totemsFile.exists() && !otherFile.exists()) {
             try {
                 totemsFile.createNewFile();
                 plugin.getLogger().info("Arquivo totems.yml criado");
@@ -43,6 +95,8 @@ public class TotemManager {
     }
 
     public Totem createTotem(Location location, Player player, String name) {
+        checkMainThread("createTotem");
+
         UUID totemId = UUID.randomUUID();
         Material blockMaterial = plugin.getConfigManager().getTotemBlockMaterial();
         Totem totem = new Totem(totemId, player.getUniqueId(), name, location, blockMaterial);
@@ -51,7 +105,19 @@ public class TotemManager {
 
         totems.put(totemId, totem);
 
-        locationIndex.put(location, totemId);
+        addToIndexes(totem);
+
+        if (plugin.getHologramManager() != null) {
+            plugin.getHologramManager().onTotemCreated(totem);
+        }
+
+        TotemRecord record = toRecord(totem);
+        markCatalogChanged(totemId, record);
+
+        journal.append(out -> {
+            out.writeByte(OP_CREATE);
+            writeRecord(out, record);
+        });
 
         plugin.getLogger().info("Totem criado: " + name + " por " + player.getName() +
                 " em " + formatLocation(location));
@@ -59,6 +125,69 @@ public class TotemManager {
         return totem;
     }
 
+    private void addToIndexes(Totem totem) {
+        blockIndex.computeIfAbsent(totem.getWorld().getUID(), k -> new LongObjectMap<>())
+                .put(BlockKey.blockKey(totem.getBlockX(), totem.getBlockY(), totem.getBlockZ()), totem);
+        ownerIndex.computeIfAbsent(totem.getOwnerId(), k -> new HashSet<>()).add(totem.getId());
+        spatialIndex.add(totem);
+    }
+
+    private void removeFromIndexes(Totem totem) {
+        spatialIndex.remove(totem);
+
+        LongObjectMap<Totem> worldIndex = blockIndex.get(totem.getWorld().getUID());
+        if (worldIndex != null) {
+            long key = BlockKey.blockKey(totem.getBlockX(), totem.getBlockY(), totem.getBlockZ());
+
+            // Só remove se o índice ainda aponta para este totem
+            if (worldIndex.get(key) == totem) {
+                worldIndex.remove(key);
+            }
+        }
+
+        Set<UUID> owned = ownerIndex.get(totem.getOwnerId());
+        if (owned != null) {
+            owned.remove(totem.getId());
+            if (owned.isEmpty()) {
+                ownerIndex.remove(totem.getOwnerId());
+            }
+        }
+    }
+
+    // Junta as mudanças do tick; o catálogo é copiado uma vez só, no fim do tick
+    private void markCatalogChanged(UUID totemId, TotemRecord record) {
+        catalogChanges.put(totemId, record);
+
+        // Desligando (renomeações aplicadas no onDisable): não dá para agendar, publica já
+        if (!plugin.isEnabled()) {
+            publishCatalog();
+            return;
+        }
+
+        if (!catalogPublishScheduled) {
+            catalogPublishScheduled = true;
+            Bukkit.getScheduler().runTask(plugin, this::publishCatalog);
+        }
+    }
+
+    private void publishCatalog() {
+        catalogPublishScheduled = false;
+
+        if (catalogChanges.isEmpty()) {
+            return;
+        }
+
+        catalog = catalog.apply(catalogChanges);
+        catalogChanges.clear();
+    }
+
+    // Escritor único: mudanças fora da main thread correriam junto com os listeners que leem os índices
+    private static void checkMainThread(String operation) {
+        if (!Bukkit.isPrimaryThread()) {
+            throw new IllegalStateException(operation + " chamado fora da main thread");
+        }
+    }
+
     private String formatLocation(Location location) {
         return String.format("%d, %d, %d em %s",
                 location.getBlockX(),
@@ -69,29 +198,78 @@ public class TotemManager {
     }
 
     public boolean removeTotem(UUID totemId) {
+        checkMainThread("removeTotem");
+
         Totem totem = totems.get(totemId);
 
         if (totem == null) return false;
 
         totem.removeBlock();
 
-        locationIndex.remove(totem.getLocation());
+        removeFromIndexes(totem);
 
         totems.remove(totemId);
+        markCatalogChanged(totemId, null);
+
+        // Tira o totem dos menus abertos e do cache de itens
+        if (plugin.getTotemMenu() != null) {
+            plugin.getTotemMenu().onTotemRemoved(totemId);
+        }
+
+        if (plugin.getHologramManager() != null) {
+            plugin.getHologramManager().onTotemRemoved(totemId);
+        }
+
+        journal.append(out -> {
+            out.writeByte(OP_REMOVE);
+            BinaryIO.writeUuid(out, totemId);
+        });
 
         plugin.getLogger().info("Totem removido: " + totem.getName());
 
         return true;
     }
 
+    public void renameTotem(Totem totem, String name) {
+        checkMainThread("renameTotem");
+
+        totem.setName(name);
+        markCatalogChanged(totem.getId(), toRecord(totem));
+
+        // Atualiza o item nos menus abertos que mostram este totem
+        if (plugin.getTotemMenu() != null) {
+            plugin.getTotemMenu().onTotemRenamed(totem);
+        }
+
+        // E o texto do holograma, na mesma entidade
+        if (plugin.getHologramManager() != null) {
+            plugin.getHologramManager().onTotemChanged(totem);
+        }
+
+        UUID totemId = totem.getId();
+        journal.append(out -> {
+            out.writeByte(OP_RENAME);
+            BinaryIO.writeUuid(out, totemId);
+            out.writeUTF(name);
+        });
+    }
+
     public boolean removeTotemAt(Location location) {
-        UUID totemId = locationIndex.get(location);
+        Totem totem = getTotemByLocation(location);
 
-        if (totemId == null) {
+        if (totem == null) {
             return false;
         }
 
-        return removeTotem(totemId);
+        return removeTotem(totem.getId());
+    }
+
+    /**
+     * Catálogo imutável mais recente. Seguro em qualquer thread; não muda depois de obtido.
+     * Pode estar até um tick atrasado em relação aos índices da main thread.
+     */
+    public TotemCatalog getCatalog() {
+        return catalog;
     }
 
     public Totem getTotemById(UUID totemId) {
@@ -99,19 +277,73 @@ public class TotemManager {
     }
 
     public Totem getTotemByLocation(Location location) {
-        UUID totemId = locationIndex.get(location);
+        if (location.getWorld() == null) {
+            return null;
+        }
+
+        return getTotemAt(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
 
-        if (totemId == null) {
+    /**
+     * Lookup sem alocação, para os listeners (interact/break) que já têm as coordenadas do bloco.
+     */
+    public Totem getTotemAt(World world, int x, int y, int z) {
+        LongObjectMap<Totem> worldIndex = blockIndex.get(world.getUID());
+
+        if (worldIndex == null) {
             return null;
         }
 
-        return totems.get(totemId);
+        return worldIndex.get(BlockKey.blockKey(x, y, z));
+    }
+
+    public boolean hasTotemAt(World world, int x, int y, int z) {
+        return getTotemAt(world, x, y, z) != null;
+    }
+
+    /**
+     * Rejeição rápida para os listeners: a maioria dos blocos clicados/quebrados está em chunks sem totem.
+     * Usa as chaves de chunk do índice espacial, mantidas junto com create/remove/load.
+     */
+    public boolean hasTotemInChunk(World world, int chunkX, int chunkZ) {
+        return spatialIndex.hasAnyInChunk(world, chunkX, chunkZ);
+    }
+
+    public List<Totem> getTotemsInChunk(World world, int chunkX, int chunkZ) {
+        return spatialIndex.inChunk(world, chunkX, chunkZ);
+    }
+
+    public List<Totem> getTotemsWithinRadius(Location center, double radius) {
+        return spatialIndex.withinRadius(center, radius);
+    }
+
+    public List<Totem> getNearestTotems(Location center, int amount) {
+        return spatialIndex.nearest(center, amount);
+    }
+
+    public Totem getNearestTotem(Location center) {
+        List<Totem> nearest = spatialIndex.nearest(center, 1);
+        return nearest.isEmpty() ? null : nearest.get(0);
     }
 
     public List<Totem> getTotemsByOwner(UUID ownerId) {
-        return totems.values().stream()
-                .filter(totem -> totem.getOwnerId().equals(ownerId))
-                .collect(Collectors.toList());
+        Set<UUID> owned = ownerIndex.get(ownerId);
+
+        if (owned == null) {
+            return new ArrayList<>();
+        }
+
+        List<Totem> result = new ArrayList<>(owned.size());
+        for (UUID totemId : owned) {
+            result.add(totems.get(totemId));
+        }
+
+        return result;
+    }
+
+    public int countTotemsByOwner(UUID ownerId) {
+        Set<UUID> owned = ownerIndex.get(ownerId);
+        return owned == null ? 0 : owned.size();
     }
 
     public Collection<Totem> getAllTotems() {
@@ -124,125 +356,273 @@ public class TotemManager {
 
     public boolean canPlayerCreateMore(Player player) {
         int maxTotems = plugin.getConfigManager().getMaxTotemsPerPlayer();
-        int currentTotems = getTotemsByOwner(player.getUniqueId()).size();
+        int currentTotems = countTotemsByOwner(player.getUniqueId());
 
         return currentTotems < maxTotems;
     }
 
     public int getRemainingTotems(Player player) {
         int maxTotems = plugin.getConfigManager().getMaxTotemsPerPlayer();
-        int currentTotems = getTotemsByOwner(player.getUniqueId()).size();
+        int currentTotems = countTotemsByOwner(player.getUniqueId());
 
         return Math.max(0, maxTotems - currentTotems);
     }
 
     public boolean hasTotemAt(Location location) {
-        return locationIndex.containsKey(location);
+        return getTotemByLocation(location) != null;
+    }
+
+    /**
+     * Compacta o journal uma última vez e aguarda a escrita terminar (usado no onDisable).
+     */
+    public void shutdown() {
+        journal.shutdown(plugin.getConfigManager().getSaveShutdownTimeoutMillis());
     }
 
-    public void saveToFile() {
-        FileConfiguration config = new YamlConfiguration();
+    private TotemRecord toRecord(Totem totem) {
+        Location location = totem.getLocation();
 
-        // Para cada totem, salva suas informações
-        for (Totem totem : totems.values()) {
-            String path = "totems." + totem.getId().toString();
+        return new TotemRecord(
+                totem.getId(),
+                totem.getOwnerId(),
+                totem.getName(),
+                totem.getWorld().getName(),
+                location.getBlockX(),
+                location.getBlockY(),
+                location.getBlockZ(),
+                totem.getBlockMaterial().name(),
+                totem.getCreatedAt()
+        );
+    }
+
+    // O catálogo já tem os records prontos: não precisa reconverter cada totem.
+    // Publica antes o que ainda está pendente: o snapshot precisa conter tudo que já foi para o journal
+    private List<TotemRecord> snapshot() {
+        publishCatalog();
+        return new ArrayList<>(catalog.getTotems());
+    }
+
+    // Roda na thread do journal
+    private void writeSnapshot(List<TotemRecord> records) throws IOException {
+        TotemSnapshotCodec.write(totemsFile, snapshotFormat, records);
+        plugin.getLogger().info("Salvos " + records.size() + " totems em " + totemsFile.getName());
+    }
+
+    private static void writeRecord(DataOutput out, TotemRecord record) throws IOException {
+        BinaryIO.writeUuid(out, record.id());
+        BinaryIO.writeUuid(out, record.ownerId());
+        out.writeUTF(record.name());
+        out.writeUTF(record.world());
+        out.writeInt(record.x());
+        out.writeInt(record.y());
+        out.writeInt(record.z());
+        out.writeUTF(record.material());
+        out.writeLong(record.createdAt());
+    }
+
+    private static TotemRecord readRecord(DataInput in) throws IOException {
+        return new TotemRecord(
+                BinaryIO.readUuid(in),
+                BinaryIO.readUuid(in),
+                in.readUTF(),
+                in.readUTF(),
+                in.readInt(),
+                in.readInt(),
+                in.readInt(),
+                in.readUTF(),
+                in.readLong()
+        );
+    }
+
+    public void loadFromFile() {
+        int loaded = loadSnapshot();
 
-            config.set(path + ".name", totem.getName());
-            config.set(path + ".owner", totem.getOwnerId().toString());
-            config.set(path + ".world", totem.getWorld().getName());
-            config.set(path + ".x", totem.getLocation().getX());
-            config.set(path + ".y", totem.getLocation().getY());
-            config.set(path + ".z", totem.getLocation().getZ());
-            config.set(path + ".material", totem.getBlockMaterial().name());
-            config.set(path + ".created", totem.getCreatedAt());
+        // Reaplica as mudanças feitas depois do último snapshot
+        int replayed = journal.replay(this::replay);
+        if (replayed > 0) {
+            plugin.getLogger().info("Reaplicadas " + replayed + " mudanças de totems.journal");
         }
 
+        // Publica o catálogo uma vez só, depois do snapshot e do journal
+        List<TotemRecord> records = new ArrayList<>(totems.size());
+        for (Totem totem : totems.values()) {
+            records.add(toRecord(totem));
+        }
+        catalog = TotemCatalog.of(catalog.getVersion() + 1, records);
+
         try {
-            config.save(totemsFile);
-            plugin.getLogger().info("Salvos " + totems.size() + " totems em totems.yml");
+            journal.open();
         } catch (IOException e) {
-            plugin.getLogger().severe("Erro ao salvar totems.yml: " + e.getMessage());
-            e.printStackTrace();
+            plugin.getLogger().severe("Erro ao abrir totems.journal: " + e.getMessage());
         }
+
+        plugin.getLogger().info("Carregados " + totems.size() + " totems (" + loaded + " do snapshot)");
     }
 
-    public void loadFromFile() {
-        if (!totemsFile.exists()) {
-            plugin.getLogger().info("Nenhum totem salvo encontrado");
-            return;
-        }
+    private int loadSnapshot() {
+        List<TotemRecord> records;
 
-        FileConfiguration config = YamlConfiguration.loadConfiguration(totemsFile);
-        ConfigurationSection totemsSection = config.getConfigurationSection("totems");
+        try {
+            records = readSnapshot();
+        } catch (IOException e) {
+            // Não segue com dados vazios: a próxima compactação apagaria o snapshot
+            throw new IllegalStateException("Erro ao ler " + totemsFile.getName() + ": " + e.getMessage(), e);
+        }
 
-        if (totemsSection == null) {
+        if (records.isEmpty()) {
             plugin.getLogger().info("Nenhum totem salvo encontrado");
-            return;
+            return 0;
         }
 
         int loaded = 0;
         int errors = 0;
 
-        // Para cada totem salvo
-        for (String idString : totemsSection.getKeys(false)) {
+        for (TotemRecord record : records) {
             try {
-                String path = "totems." + idString;
-
-                // Lê os dados
-                UUID id = UUID.fromString(idString);
-                String name = config.getString(path + ".name");
-                UUID ownerId = UUID.fromString(config.getString(path + ".owner"));
-                String worldName = config.getString(path + ".world");
-                double x = config.getDouble(path + ".x");
-                double y = config.getDouble(path + ".y");
-                double z = config.getDouble(path + ".z");
-                String materialName = config.getString(path + ".material");
-
-                // Valida o mundo
-                org.bukkit.World world = plugin.getServer().getWorld(worldName);
-                if (world == null) {
-                    plugin.getLogger().warning("Mundo não encontrado para totem: " + worldName);
+                if (addLoadedTotem(record)) {
+                    loaded++;
+                } else {
                     errors++;
-                    continue;
                 }
+            } catch (Exception e) {
+                plugin.getLogger().warning("Erro ao carregar totem " + record.id() + ": " + e.getMessage());
+                errors++;
+            }
+        }
 
-                // Valida o material
-                Material material;
-                try {
-                    material = Material.valueOf(materialName);
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Material inválido para totem: " + materialName);
-                    material = plugin.getConfigManager().getTotemBlockMaterial();
-                }
+        if (errors > 0) {
+            plugin.getLogger().warning(errors + " totems falharam ao carregar");
+        }
+
+        return loaded;
+    }
 
-                // Cria a location
-                Location location = new Location(world, x, y, z);
+    private List<TotemRecord> readSnapshot() throws IOException {
+        SnapshotFormat otherFormat = snapshotFormat.other();
+        File otherFile = new File(plugin.getDataFolder(), "totems" + otherFormat.getExtension());
 
-                // Recria o totem
-                Totem totem = new Totem(id, ownerId, name, location, material);
+        // Migração única quando o storage.format muda (yaml -> binary ou binary -> yaml).
+        // Um .yml vazio (criado por versões antigas ao voltar para yaml) conta como ausente
+        boolean missing = !totemsFile.exists() || totemsFile.length() == 0;
+        if (missing && otherFile.exists() && otherFile.length() > 0) {
+            List<TotemRecord> records = TotemSnapshotCodec.read(otherFile, otherFormat, plugin.getLogger());
+            TotemSnapshotCodec.write(totemsFile, snapshotFormat, records);
 
-                // Verifica se o bloco ainda existe no mundo
-                if (!totem.isValid()) {
-                    // Se o bloco foi destruído, coloca de volta
-                    totem.placeBlock();
-                    plugin.getLogger().info("Bloco do totem restaurado: " + name);
+            File migratedFile = new File(plugin.getDataFolder(), otherFile.getName() + ".migrated");
+            try {
+                Files.move(otherFile.toPath(), migratedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Não foi possível renomear " + otherFile.getName() + " após a migração: " + e.getMessage());
+            }
+
+            plugin.getLogger().info("Migrados " + records.size() + " totems de " + otherFile.getName() +
+                    " para " + totemsFile.getName());
+            return records;
+        }
+
+        return TotemSnapshotCodec.read(totemsFile, snapshotFormat, plugin.getLogger());
+    }
+
+    private void replay(DataInputStream in) throws IOException {
+        byte op = in.readByte();
+
+        switch (op) {
+            case OP_CREATE -> addLoadedTotem(readRecord(in));
+            case OP_REMOVE -> {
+                Totem totem = totems.remove(BinaryIO.readUuid(in));
+                if (totem != null) {
+                    removeFromIndexes(totem);
                 }
+            }
+            case OP_RENAME -> {
+                Totem totem = totems.get(BinaryIO.readUuid(in));
+                String name = in.readUTF();
+                if (totem != null) {
+                    totem.setName(name);
+                }
+            }
+            default -> throw new IOException("Operação desconhecida: " + op);
+        }
+    }
+
+    private boolean addLoadedTotem(TotemRecord record) {
+        // Valida o mundo
+        World world = plugin.getServer().getWorld(record.world());
+        if (world == null) {
+            plugin.getLogger().warning("Mundo não encontrado para totem: " + record.world());
+            return false;
+        }
 
-                // Adiciona aos mapas
-                totems.put(id, totem);
-                locationIndex.put(location, id);
+        // Valida o material
+        Material material;
+        try {
+            material = Material.valueOf(record.material());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            plugin.getLogger().warning("Material inválido para totem: " + record.material());
+            material = plugin.getConfigManager().getTotemBlockMaterial();
+        }
 
-                loaded++;
+        // Cria a location
+        Location location = new Location(world, record.x(), record.y(), record.z());
+
+        // Recria o totem
+        Totem totem = new Totem(record.id(), record.ownerId(), record.name(), location, material, record.createdAt());
+
+        // Só valida o bloco agora se o chunk já estiver carregado (ex.: spawn);
+        // os outros são validados no ChunkLoadEvent, sem forçar carregamento síncrono
+        if (totem.isChunkLoaded()) {
+            validateBlock(totem);
+        } else {
+            pendingValidation
+                    .computeIfAbsent(world.getUID(), k -> new HashMap<>())
+                    .computeIfAbsent(BlockKey.chunkKey(totem.getChunkX(), totem.getChunkZ()), k -> new ArrayList<>(1))
+                    .add(totem);
+        }
 
-            } catch (Exception e) {
-                plugin.getLogger().warning("Erro ao carregar totem " + idString + ": " + e.getMessage());
-                errors++;
+        // Adiciona aos mapas (substitui a versão anterior, se o journal recriar o mesmo totem)
+        Totem previous = totems.put(record.id(), totem);
+        if (previous != null) {
+            removeFromIndexes(previous);
+        }
+        addToIndexes(totem);
+
+        return true;
+    }
+
+    private void validateBlock(Totem totem) {
+        // Verifica se o bloco ainda existe no mundo
+        if (!totem.isValid()) {
+            // Se o bloco foi destruído, coloca de volta
+            totem.placeBlock();
+            plugin.getLogger().info("Bloco do totem restaurado: " + totem.getName());
+        }
+    }
+
+    public void onChunkLoad(Chunk chunk) {
+        if (pendingValidation.isEmpty()) {
+            return;
+        }
+
+        UUID worldId = chunk.getWorld().getUID();
+        Map<Long, List<Totem>> worldPending = pendingValidation.get(worldId);
+        if (worldPending == null) {
+            return;
+        }
+
+        List<Totem> pending = worldPending.remove(BlockKey.chunkKey(chunk.getX(), chunk.getZ()));
+        if (pending == null) {
+            return;
+        }
+
+        for (Totem totem : pending) {
+            // Ignora totems removidos (ou recriados) enquanto o chunk estava descarregado
+            if (totems.get(totem.getId()) == totem) {
+                validateBlock(totem);
             }
         }
 
-        plugin.getLogger().info("Carregados " + loaded + " totems do arquivo");
-        if (errors > 0) {
-            plugin.getLogger().warning(errors + " totems falharam ao carregar");
+        if (worldPending.isEmpty()) {
+            pendingValidation.remove(worldId);
         }
     }
 
@@ -0,0 +1,221 @@
+package com.jotage.jotageTotems.managers;
+
+import com.jotage.jotageTotems.models.Totem;
+import com.jotage.jotageTotems.utils.BlockKey;
+import com.jotage.jotageTotems.utils.LongObjectMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.*;
+
+/**
+ * Índice espacial de totems, dividido por mundo e por chunk.
+ * Responde "totems no chunk", "totems num raio" e "k totems mais próximos"
+ * visitando só os chunks da região, sem percorrer todos os totems.
+ */
+public class TotemSpatialIndex {
+
+    private final Map<UUID, LongObjectMap<List<Totem>>> chunks;
+
+    public TotemSpatialIndex() {
+        this.chunks = new HashMap<>();
+    }
+
+    public void add(Totem totem) {
+        LongObjectMap<List<Totem>> worldChunks = chunks.computeIfAbsent(totem.getWorld().getUID(), k -> new LongObjectMap<>());
+
+        long key = BlockKey.chunkKey(totem.getChunkX(), totem.getChunkZ());
+        List<Totem> bucket = worldChunks.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<>(2);
+            worldChunks.put(key, bucket);
+        }
+
+        bucket.add(totem);
+    }
+
+    public void remove(Totem totem) {
+        LongObjectMap<List<Totem>> worldChunks = chunks.get(totem.getWorld().getUID());
+        if (worldChunks == null) {
+            return;
+        }
+
+        long key = BlockKey.chunkKey(totem.getChunkX(), totem.getChunkZ());
+        List<Totem> bucket = worldChunks.get(key);
+        if (bucket == null) {
+            return;
+        }
+
+        bucket.remove(totem);
+
+        if (bucket.isEmpty()) {
+            worldChunks.remove(key);
+            if (worldChunks.isEmpty()) {
+                chunks.remove(totem.getWorld().getUID());
+            }
+        }
+    }
+
+    public List<Totem> inChunk(World world, int chunkX, int chunkZ) {
+        LongObjectMap<List<Totem>> worldChunks = chunks.get(world.getUID());
+        if (worldChunks == null) {
+            return Collections.emptyList();
+        }
+
+        List<Totem> bucket = worldChunks.get(BlockKey.chunkKey(chunkX, chunkZ));
+        return bucket == null ? Collections.emptyList() : Collections.unmodifiableList(bucket);
+    }
+
+    public boolean hasAnyInChunk(World world, int chunkX, int chunkZ) {
+        LongObjectMap<List<Totem>> worldChunks = chunks.get(world.getUID());
+        return worldChunks != null && worldChunks.containsKey(BlockKey.chunkKey(chunkX, chunkZ));
+    }
+
+    public List<Totem> withinRadius(Location center, double radius) {
+        List<Totem> result = new ArrayList<>();
+
+        World world = center.getWorld();
+        if (world == null) {
+            return result;
+        }
+
+        LongObjectMap<List<Totem>> worldChunks = chunks.get(world.getUID());
+        if (worldChunks == null) {
+            return result;
+        }
+
+        double radiusSquared = radius * radius;
+        int minChunkX = (int) Math.floor(center.getX() - radius) >> 4;
+        int maxChunkX = (int) Math.floor(center.getX() + radius) >> 4;
+        int minChunkZ = (int) Math.floor(center.getZ() - radius) >> 4;
+        int maxChunkZ = (int) Math.floor(center.getZ() + radius) >> 4;
+
+        long area = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+
+        // Raio muito grande: sai mais barato visitar só os chunks que têm totems
+        if (area > worldChunks.size()) {
+            worldChunks.forEachValue(bucket -> collectWithin(bucket, center, radiusSquared, result));
+            return result;
+        }
+
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                List<Totem> bucket = worldChunks.get(BlockKey.chunkKey(chunkX, chunkZ));
+                if (bucket != null) {
+                    collectWithin(bucket, center, radiusSquared, result);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Os k totems mais próximos, do mais perto para o mais longe.
+     * Busca em anéis de chunks a partir do centro e para assim que nenhum anel
+     * mais distante puder ter um totem mais perto que o k-ésimo encontrado.
+     */
+    public List<Totem> nearest(Location center, int k) {
+        World world = center.getWorld();
+        if (world == null || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        LongObjectMap<List<Totem>> worldChunks = chunks.get(world.getUID());
+        if (worldChunks == null) {
+            return new ArrayList<>();
+        }
+
+        // Max-heap pela distância: o topo é o pior dos k melhores
+        PriorityQueue<Candidate> best = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble(Candidate::distanceSquared).reversed());
+
+        int centerChunkX = center.getBlockX() >> 4;
+        int centerChunkZ = center.getBlockZ() >> 4;
+        int populated = worldChunks.size();
+        int visited = 0;
+
+        for (int ring = 0; ; ring++) {
+            // Anel grande demais para valer a pena: varre os chunks com totems restantes de uma vez
+            long ringArea = (long) (2 * ring + 1) * (2 * ring + 1);
+            if (ringArea > 4L * populated) {
+                best.clear();
+                worldChunks.forEachValue(bucket -> offerAll(bucket, center, k, best));
+                break;
+            }
+
+            for (int chunkX = centerChunkX - ring; chunkX <= centerChunkX + ring; chunkX++) {
+                for (int chunkZ = centerChunkZ - ring; chunkZ <= centerChunkZ + ring; chunkZ++) {
+                    // Só a borda do anel; o interior já foi visitado
+                    if (Math.abs(chunkX - centerChunkX) != ring && Math.abs(chunkZ - centerChunkZ) != ring) {
+                        continue;
+                    }
+
+                    List<Totem> bucket = worldChunks.get(BlockKey.chunkKey(chunkX, chunkZ));
+                    if (bucket != null) {
+                        offerAll(bucket, center, k, best);
+                        visited++;
+                    }
+                }
+            }
+
+            if (visited >= populated) {
+                break;
+            }
+
+            // Qualquer totem no próximo anel está a pelo menos ring * 16 blocos na horizontal
+            if (best.size() == k) {
+                double minNext = ring * 16.0;
+                if (minNext * minNext >= best.peek().distanceSquared()) {
+                    break;
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(best);
+        sorted.sort(Comparator.comparingDouble(Candidate::distanceSquared));
+
+        List<Totem> result = new ArrayList<>(sorted.size());
+        for (Candidate candidate : sorted) {
+            result.add(candidate.totem());
+        }
+
+        return result;
+    }
+
+    public void clear() {
+        chunks.clear();
+    }
+
+    private record Candidate(Totem totem, double distanceSquared) {
+    }
+
+    private static void offerAll(List<Totem> bucket, Location center, int k, PriorityQueue<Candidate> best) {
+        for (Totem totem : bucket) {
+            double distanceSquared = distanceSquared(totem, center);
+
+            if (best.size() < k) {
+                best.add(new Candidate(totem, distanceSquared));
+            } else if (distanceSquared < best.peek().distanceSquared()) {
+                best.poll();
+                best.add(new Candidate(totem, distanceSquared));
+            }
+        }
+    }
+
+    private static void collectWithin(List<Totem> bucket, Location center, double radiusSquared, List<Totem> result) {
+        for (Totem totem : bucket) {
+            if (distanceSquared(totem, center) <= radiusSquared) {
+                result.add(totem);
+            }
+        }
+    }
+
+    // Distância até o centro do bloco do totem
+    private static double distanceSquared(Totem totem, Location center) {
+        double dx = totem.getBlockX() + 0.5 - center.getX();
+        double dy = totem.getBlockY() + 0.5 - center.getY();
+        double dz = totem.getBlockZ() + 0.5 - center.getZ();
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
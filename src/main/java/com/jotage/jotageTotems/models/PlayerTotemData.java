@@ -2,22 +2,25 @@ package com.jotage.jotageTotems.models;
 
 import java.util.*;
 
+/**
+ * Dados persistentes de um jogador que usa totems.
+ * Estado temporário (ex.: confirmação de quebra) fica no PlayerSessionStore, não aqui.
+ */
 public class PlayerTotemData {
 
     private final UUID playerId;
     private final Set<UUID> registeredTotems;
+    // Mesmos totems, na ordem de registro (acesso por índice para paginar o menu)
+    private final List<UUID> registrationOrder;
     private final Map<UUID, String> customTotemNames;
     private long lastTeleportTime;
-    private UUID pendingTotemBreak;
-    private long breakConfirmTime;
 
     public PlayerTotemData(UUID playerId) {
         this.playerId = playerId;
         this.registeredTotems = new HashSet<>();
+        this.registrationOrder = new ArrayList<>();
         this.customTotemNames = new HashMap<>();
         this.lastTeleportTime = 0;
-        this.pendingTotemBreak = null;
-        this.breakConfirmTime = 0;
     }
 
     public UUID getPlayerId() {
@@ -25,23 +28,23 @@ public class PlayerTotemData {
     }
 
     public Set<UUID> getRegisteredTotems() {
-        return registeredTotems;
+        return Collections.unmodifiableSet(registeredTotems);
     }
 
-    public Map<UUID, String> getCustomTotemNames() {
-        return customTotemNames;
+    public List<UUID> getRegistrationOrder() {
+        return Collections.unmodifiableList(registrationOrder);
     }
 
-    public long getLastTeleportTime() {
-        return lastTeleportTime;
+    public UUID getRegisteredTotem(int index) {
+        return registrationOrder.get(index);
     }
 
-    public UUID getPendingTotemBreak() {
-        return pendingTotemBreak;
+    public Map<UUID, String> getCustomTotemNames() {
+        return customTotemNames;
     }
 
-    public long getBreakConfirmTime() {
-        return breakConfirmTime;
+    public long getLastTeleportTime() {
+        return lastTeleportTime;
     }
 
     public void updateLastTeleport() {
@@ -54,7 +57,12 @@ public class PlayerTotemData {
 
     // Adiciona totem na lista
     public boolean registerTotem(UUID totemId) {
-        return registeredTotems.add(totemId);
+        if (!registeredTotems.add(totemId)) {
+            return false;
+        }
+
+        registrationOrder.add(totemId);
+        return true;
     }
 
     // Remove totem na lista
@@ -62,6 +70,10 @@ public class PlayerTotemData {
 
         boolean removed = registeredTotems.remove(totemId);
 
+        if (removed) {
+            registrationOrder.remove(totemId);
+        }
+
         customTotemNames.remove(totemId);
 
         return removed;
@@ -96,33 +108,6 @@ public class PlayerTotemData {
         return customTotemNames.containsKey(totemId);
     }
 
-    public void setPendingBreak(UUID totemId) {
-        this.pendingTotemBreak = totemId;
-        this.breakConfirmTime = System.currentTimeMillis();
-    }
-
-    public void clearPendingBreak() {
-        this.pendingTotemBreak = null;
-        this.breakConfirmTime = 0;
-    }
-
-    public boolean hasPendingBreak() {
-        return pendingTotemBreak != null;
-    }
-
-    public boolean isBreakConfirmationExpired(long confirmationTime) {
-        if (!hasPendingBreak()) {
-            return false;
-        }
-
-        long elapsedTime = System.currentTimeMillis() - breakConfirmTime;
-        return elapsedTime > confirmationTime;
-    }
-
-    public boolean isPendingBreakFor(UUID totemId) {
-        return pendingTotemBreak != null && pendingTotemBreak.equals(totemId);
-    }
-
     @Override
     public String toString() {
         return String.format("PlayerTotemData{player=%s, totems=%d, lastTP=%d}",
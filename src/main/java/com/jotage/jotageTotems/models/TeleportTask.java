@@ -1,23 +1,27 @@
 package com.jotage.jotageTotems.models;
 
+import com.jotage.jotageTotems.utils.TimerWheel;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
 public class TeleportTask {
 
     private final Player player;
     private final Totem destination;
     private final Location startLocation;
-    private int countdown;
-    private BukkitTask task;
+    private int remainingTicks;
+    private TimerWheel.Timeout<TeleportTask> timeout;
+    private boolean holdingChunk;
+    private boolean inFlight;
 
-    public TeleportTask(Player player, Totem destination, int countdown) {
+    public TeleportTask(Player player, Totem destination, int countdownTicks) {
         this.player = player;
         this.destination = destination;
-        this.startLocation = player.getLocation().clone();
-        this.countdown = countdown;
-        this.task = null;
+        this.startLocation = player.getLocation();
+        this.remainingTicks = countdownTicks;
+        this.timeout = null;
+        this.holdingChunk = false;
+        this.inFlight = false;
     }
 
     public Player getPlayer() {
@@ -32,34 +36,62 @@ public class TeleportTask {
         return startLocation;
     }
 
+    // Segundos restantes, arredondados para cima (o que aparece na contagem)
     public int getCountdown() {
-        return countdown;
+        return (remainingTicks + 19) / 20;
     }
 
-    public BukkitTask getTask() {
-        return task;
+    public int getRemainingTicks() {
+        return remainingTicks;
     }
 
-    public void setTask(BukkitTask task) {
-        this.task = task;
+    public TimerWheel.Timeout<TeleportTask> getTimeout() {
+        return timeout;
     }
 
-    public void decrementCountdown() {
-        this.countdown--;
+    public void setTimeout(TimerWheel.Timeout<TeleportTask> timeout) {
+        this.timeout = timeout;
+    }
+
+    // Se esta contagem segura o chunk de destino carregado
+    public boolean isHoldingChunk() {
+        return holdingChunk;
+    }
+
+    public void setHoldingChunk(boolean holdingChunk) {
+        this.holdingChunk = holdingChunk;
+    }
+
+    // Contagem terminou e o teleportAsync foi disparado: não dá mais para cancelar
+    public boolean isInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(boolean inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    public void advance(int ticks) {
+        this.remainingTicks -= ticks;
     }
 
     public boolean isComplete() {
-        return countdown <= 0;
+        return remainingTicks <= 0;
     }
 
     public void cancel() {
-        if (task != null && !task.isCancelled()) {
-            task.cancel();
+        if (timeout != null) {
+            timeout.cancel();
         }
     }
 
     public boolean hasPlayerMoved() {
-        Location currentLocation = player.getLocation();
+        return hasPlayerMoved(player.getLocation());
+    }
+
+    // Versão sem alocação: reaproveita uma Location preenchida pelo chamador
+    public boolean hasPlayerMoved(Location scratch) {
+        Location currentLocation = player.getLocation(scratch);
         // Compara as coordenadas X, Y, Z
         // Usamos getBlockX/Y/Z para comparar blocos inteiros
         // (evita cancelar por micro-movimentos causados por lag)
@@ -73,15 +105,15 @@ public class TeleportTask {
     }
 
     public boolean isActive() {
-        return task != null && !task.isCancelled();
+        return timeout != null && !timeout.isDone();
     }
 
     @Override
     public String toString() {
-        return String.format("TeleportTask{player=%s, destination=%s, countdown=%d}",
+        return String.format("TeleportTask{player=%s, destination=%s, remainingTicks=%d}",
                 player.getName(),
                 destination.getName(),
-                countdown
+                remainingTicks
         );
     }
 }
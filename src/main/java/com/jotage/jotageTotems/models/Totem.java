@@ -5,27 +5,44 @@ import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.UUID;
 
 public class Totem {
 
+    // Formato da data de criação mostrada ao jogador (menu e holograma)
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")
+            .withZone(ZoneId.systemDefault());
+
     private final UUID id;
     private final UUID ownerId;
     private String name;
     private World world;
     private Location location;
+    private final int blockX;
+    private final int blockY;
+    private final int blockZ;
     private final long createdAt;
-    private Block block;
     private Material blockMaterial;
+    // Muda a cada alteração visível (ex.: renomear), para quem guarda dados derivados do totem
+    private int version;
 
     public Totem(UUID id, UUID ownerId, String name, Location location, Material blockMaterial) {
+        this(id, ownerId, name, location, blockMaterial, System.currentTimeMillis());
+    }
+
+    public Totem(UUID id, UUID ownerId, String name, Location location, Material blockMaterial, long createdAt) {
         this.id = id;
         this.ownerId = ownerId;
         this.name = name;
         this.world = location.getWorld();
         this.location = location;
-        this.createdAt = System.currentTimeMillis();
-        this.block = location.getBlock();
+        this.blockX = location.getBlockX();
+        this.blockY = location.getBlockY();
+        this.blockZ = location.getBlockZ();
+        this.createdAt = createdAt;
         this.blockMaterial = blockMaterial;
     }
 
@@ -53,30 +70,63 @@ public class Totem {
         return createdAt;
     }
 
+    public String getFormattedCreatedAt() {
+        return DATE_FORMAT.format(Instant.ofEpochMilli(createdAt));
+    }
+
+    public int getBlockX() {
+        return blockX;
+    }
+
+    public int getBlockY() {
+        return blockY;
+    }
+
+    public int getBlockZ() {
+        return blockZ;
+    }
+
+    public int getChunkX() {
+        return blockX >> 4;
+    }
+
+    public int getChunkZ() {
+        return blockZ >> 4;
+    }
+
+    public boolean isChunkLoaded() {
+        return world.isChunkLoaded(blockX >> 4, blockZ >> 4);
+    }
+
+    // Atenção: carrega o chunk se ele não estiver carregado
     public Block getBlock() {
-        return block;
+        return world.getBlockAt(blockX, blockY, blockZ);
     }
 
     public void setName(String name) {
         this.name = name;
+        this.version++;
     }
 
-    public void setBlock(Block block) {
-        this.block = block;
+    public int getVersion() {
+        return version;
     }
 
     public boolean isValid() {
-        return block != null && block.getType() == blockMaterial;
+        // Chunk descarregado: a validação fica para quando ele carregar
+        if (!isChunkLoaded()) {
+            return true;
+        }
+        return getBlock().getType() == blockMaterial;
     }
 
     public void placeBlock() {
-        if (block != null) {
-            block.setType(blockMaterial);
-        }
+        getBlock().setType(blockMaterial);
     }
 
     public void removeBlock() {
-        if (block != null && isValid()) {
+        Block block = getBlock();
+        if (block.getType() == blockMaterial) {
             block.setType(Material.AIR);
         }
     }
@@ -0,0 +1,24 @@
+package com.jotage.jotageTotems.storage;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Helpers de leitura/escrita binária compartilhados pelo journal e pelos snapshots.
+ */
+public final class BinaryIO {
+
+    private BinaryIO() {
+    }
+
+    public static void writeUuid(DataOutput out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    public static UUID readUuid(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
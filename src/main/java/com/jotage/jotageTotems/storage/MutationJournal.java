@@ -0,0 +1,370 @@
+package com.jotage.jotageTotems.storage;
+
+import com.jotage.jotageTotems.JotageTotems;
+import org.bukkit.Bukkit;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Journal append-only de mutações.
+ * Cada mutação vira um registro pequeno no fim do arquivo (O(1) bytes por mudança).
+ * Uma thread própria grava os registros em lotes e faz um único fsync por lote;
+ * quando o journal passa do limite, a main thread tira um snapshot e a mesma thread
+ * grava o snapshot e zera o journal.
+ *
+ * Formato de cada registro: [int tamanho][int crc32][payload].
+ * No startup, um registro incompleto ou corrompido no fim (crash no meio da escrita) é descartado.
+ * Um erro de I/O não mata a thread: o lote é regravado (do mesmo ponto do arquivo) com espera crescente.
+ */
+public class MutationJournal<T> {
+
+    @FunctionalInterface
+    public interface Entry {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Replayer {
+        void replay(DataInputStream in) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface SnapshotWriter<T> {
+        void write(T snapshot) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    // Marcadores internos da fila do writer
+    private record Compaction<T>(T snapshot) {}
+    private static final Object STOP = new Object();
+
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    // Espera entre tentativas depois de um erro de I/O (dobra a cada falha)
+    private static final long MIN_RETRY_DELAY_MILLIS = 500;
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private final JotageTotems plugin;
+    private final File journalFile;
+    private final long compactThresholdBytes;
+    private final Supplier<T> snapshotter;
+    private final SnapshotWriter<T> snapshotWriter;
+    private final LinkedBlockingQueue<Object> queue;
+
+    private Thread thread;
+    private FileOutputStream fileOut;
+    private DataOutputStream out;
+    private long journalSize;
+    private volatile boolean compactionRequested;
+    private volatile boolean closed;
+    // Última escrita falhou: o stream precisa ser reaberto antes da próxima tentativa
+    private volatile boolean failing;
+
+    public MutationJournal(JotageTotems plugin, File journalFile, long compactThresholdBytes,
+                           Supplier<T> snapshotter, SnapshotWriter<T> snapshotWriter) {
+        this.plugin = plugin;
+        this.journalFile = journalFile;
+        this.compactThresholdBytes = compactThresholdBytes;
+        this.snapshotter = snapshotter;
+        this.snapshotWriter = snapshotWriter;
+        this.queue = new LinkedBlockingQueue<>();
+    }
+
+    /**
+     * Reaplica os registros do journal sobre o estado já carregado do snapshot.
+     * Deve ser chamado antes de {@link #open()}.
+     */
+    public int replay(Replayer replayer) {
+        if (!journalFile.exists()) {
+            return 0;
+        }
+
+        int replayed = 0;
+        long validLength = 0;
+        CRC32 crc = new CRC32();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                if (length <= 0 || length > MAX_RECORD_SIZE) {
+                    break;
+                }
+
+                int checksum = in.readInt();
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                try {
+                    replayer.replay(new DataInputStream(new ByteArrayInputStream(payload)));
+                } catch (IOException | RuntimeException e) {
+                    plugin.getLogger().warning("Registro inválido em " + journalFile.getName() + ": " + e.getMessage());
+                }
+
+                validLength += 8L + length;
+                replayed++;
+            }
+        } catch (EOFException e) {
+            // Registro cortado no meio: tratado abaixo
+        } catch (IOException e) {
+            plugin.getLogger().severe("Erro ao ler " + journalFile.getName() + ": " + e.getMessage());
+        }
+
+        // Descarta o lixo depois do último registro válido
+        if (validLength < journalFile.length()) {
+            plugin.getLogger().warning("Descartando " + (journalFile.length() - validLength) +
+                    " bytes corrompidos no fim de " + journalFile.getName());
+            try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+                file.setLength(validLength);
+            } catch (IOException e) {
+                plugin.getLogger().severe("Erro ao truncar " + journalFile.getName() + ": " + e.getMessage());
+            }
+        }
+
+        return replayed;
+    }
+
+    public void open() throws IOException {
+        openStream(true);
+
+        thread = new Thread(this::run, "JotageTotems-" + journalFile.getName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void append(Entry entry) {
+        if (closed) {
+            return;
+        }
+        queue.add(entry);
+    }
+
+    /**
+     * Compacta uma última vez e espera a thread terminar, com limite de tempo (usado no onDisable).
+     */
+    public void shutdown(long timeoutMillis) {
+        if (closed || thread == null) {
+            return;
+        }
+        closed = true;
+
+        queue.add(new Compaction<>(snapshotter.get()));
+        queue.add(STOP);
+
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (thread.isAlive()) {
+            plugin.getLogger().severe("Tempo esgotado ao salvar " + journalFile.getName() + "! Dados podem ter sido perdidos.");
+            thread.interrupt();
+        }
+    }
+
+    private void requestCompaction() {
+        if (closed) {
+            return;
+        }
+
+        // Snapshot na main thread; entra na fila depois de todos os registros que ele já contém
+        queue.add(new Compaction<>(snapshotter.get()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void run() {
+        List<Object> batch = new ArrayList<>();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        DataOutputStream bufferOut = new DataOutputStream(buffer);
+        // Registros do lote já montados (tamanho + crc + payload), gravados de uma vez
+        ByteArrayOutputStream frames = new ByteArrayOutputStream(4096);
+        DataOutputStream framesOut = new DataOutputStream(frames);
+        CRC32 crc = new CRC32();
+
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+
+                boolean stop = false;
+
+                for (Object item : batch) {
+                    if (item == STOP) {
+                        stop = true;
+                        break;
+                    }
+
+                    if (item instanceof Compaction<?> compaction) {
+                        writeFrames(frames);
+                        compact((T) compaction.snapshot());
+                        continue;
+                    }
+
+                    buffer.reset();
+                    try {
+                        ((Entry) item).write(bufferOut);
+                        bufferOut.flush();
+                    } catch (IOException e) {
+                        plugin.getLogger().severe("Erro ao serializar registro: " + e.getMessage());
+                        continue;
+                    }
+
+                    crc.reset();
+                    crc.update(buffer.toByteArray(), 0, buffer.size());
+
+                    framesOut.writeInt(buffer.size());
+                    framesOut.writeInt((int) crc.getValue());
+                    buffer.writeTo(framesOut);
+                }
+
+                batch.clear();
+
+                // Uma única escrita e um único fsync por lote
+                writeFrames(frames);
+
+                if (stop) {
+                    break;
+                }
+
+                if (!compactionRequested && !closed && plugin.isEnabled() && journalSize >= compactThresholdBytes) {
+                    compactionRequested = true;
+                    Bukkit.getScheduler().runTask(plugin, this::requestCompaction);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Só escrita em memória (ByteArrayOutputStream) chega aqui
+            plugin.getLogger().severe("Erro inesperado no journal " + journalFile.getName() + ": " + e.getMessage());
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Grava os registros montados e faz o fsync. Se falhar, reabre o arquivo, corta o que o lote
+     * deixou pela metade e tenta de novo, até conseguir (ou a thread ser interrompida no shutdown).
+     */
+    private void writeFrames(ByteArrayOutputStream frames) throws InterruptedException {
+        if (frames.size() == 0) {
+            return;
+        }
+
+        long start = journalSize;
+
+        withRetry(() -> {
+            if (failing) {
+                reopen(start);
+            }
+
+            frames.writeTo(out);
+            sync();
+            journalSize = start + frames.size();
+        });
+
+        frames.reset();
+    }
+
+    private void compact(T snapshot) throws InterruptedException {
+        try {
+            // O codec só retorna depois do snapshot estar no disco (fsync do arquivo e do diretório)
+            snapshotWriter.write(snapshot);
+        } catch (IOException e) {
+            // Sem snapshot novo o journal continua sendo a fonte da verdade
+            plugin.getLogger().severe("Erro ao compactar " + journalFile.getName() + ": " + e.getMessage());
+            compactionRequested = false;
+            return;
+        }
+
+        // O snapshot já contém tudo que estava no journal: começa um journal novo
+        withRetry(() -> reopen(0));
+        compactionRequested = false;
+    }
+
+    private void withRetry(IoAction action) throws InterruptedException {
+        long delay = MIN_RETRY_DELAY_MILLIS;
+        int attempts = 0;
+
+        while (true) {
+            try {
+                action.run();
+
+                if (failing) {
+                    failing = false;
+                    plugin.getLogger().info(journalFile.getName() + " voltou a gravar depois de " + attempts + " falhas");
+                }
+                return;
+            } catch (IOException e) {
+                failing = true;
+                attempts++;
+
+                // Não inunda o log: avisa na primeira falha e depois a cada 10
+                if (attempts == 1 || attempts % 10 == 0) {
+                    plugin.getLogger().severe("Erro ao gravar " + journalFile.getName() + " (tentativa " + attempts +
+                            ", " + queue.size() + " mudanças na fila): " + e.getMessage() +
+                            ". Tentando de novo em " + delay + " ms");
+                }
+
+                Thread.sleep(delay);
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+            }
+        }
+    }
+
+    // Reabre o journal e descarta o que estiver depois de {@code length} (lote gravado pela metade)
+    private void reopen(long length) throws IOException {
+        closeQuietly();
+        openStream(true);
+
+        if (journalSize > length) {
+            fileOut.getChannel().truncate(length);
+            journalSize = length;
+        }
+    }
+
+    private void closeQuietly() {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void sync() throws IOException {
+        out.flush();
+        fileOut.getChannel().force(false);
+    }
+
+    private void openStream(boolean append) throws IOException {
+        fileOut = new FileOutputStream(journalFile, append);
+        out = new DataOutputStream(new BufferedOutputStream(fileOut));
+
+        FileChannel channel = fileOut.getChannel();
+        journalSize = channel.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.jotage.jotageTotems.storage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cópia imutável dos dados persistentes de um jogador.
+ * {@code name} é o último nome conhecido (pode ser null).
+ * Capturada na main thread e gravada em disco por outra thread.
+ */
+public record PlayerRecord(
+        UUID playerId,
+        List<UUID> registeredTotems,
+        Map<UUID, String> customNames,
+        long lastTeleport,
+        String name
+) {
+
+    // Registro só com o nome (jogador conhecido, sem dados de totem)
+    public boolean isNameOnly() {
+        return registeredTotems.isEmpty() && customNames.isEmpty() && lastTeleport == 0;
+    }
+}
@@ -0,0 +1,213 @@
+package com.jotage.jotageTotems.storage;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.*;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Lê e grava o snapshot de dados de jogadores em YAML (playerdata.yml) ou binário (playerdata.dat).
+ *
+ * Formato binário (versão 2; a versão 1 não tem o nome e ainda é lida):
+ * <pre>
+ * int magic, short versão
+ * int nº de jogadores
+ *   long, long jogador | long último teleporte | boolean tem nome, (UTF nome)
+ *   int nº de registros, (long, long totem)...
+ *   int nº de nomes,     (long, long totem, UTF nome)...
+ * </pre>
+ */
+public final class PlayerSnapshotCodec {
+
+    private static final int MAGIC = 0x4A545044; // "JTPD"
+    private static final short VERSION = 2;
+
+    private PlayerSnapshotCodec() {
+    }
+
+    public static List<PlayerRecord> read(File file, SnapshotFormat format, Logger logger) throws IOException {
+        if (!file.exists() || file.length() == 0) {
+            return new ArrayList<>();
+        }
+
+        return format == SnapshotFormat.BINARY ? readBinary(file) : readYaml(file, logger);
+    }
+
+    public static void write(File file, SnapshotFormat format, List<PlayerRecord> records) throws IOException {
+        File tempFile = SnapshotFiles.tempFileFor(file);
+
+        if (format == SnapshotFormat.BINARY) {
+            writeBinary(tempFile, records);
+        } else {
+            writeYaml(tempFile, records);
+        }
+
+        SnapshotFiles.replace(tempFile, file);
+    }
+
+    // ========== YAML ==========
+
+    private static List<PlayerRecord> readYaml(File file, Logger logger) {
+        FileConfiguration config = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection playersSection = config.getConfigurationSection("players");
+
+        List<PlayerRecord> records = new ArrayList<>();
+
+        if (playersSection == null) {
+            return records;
+        }
+
+        for (String playerIdString : playersSection.getKeys(false)) {
+            try {
+                String path = "players." + playerIdString;
+                UUID playerId = UUID.fromString(playerIdString);
+
+                // Carrega totems registrados
+                List<UUID> registered = new ArrayList<>();
+                for (String totemIdString : config.getStringList(path + ".registered-totems")) {
+                    try {
+                        registered.add(UUID.fromString(totemIdString));
+                    } catch (IllegalArgumentException e) {
+                        logger.warning("UUID de totem inválido: " + totemIdString);
+                    }
+                }
+
+                // Carrega nomes customizados
+                Map<UUID, String> customNames = new HashMap<>();
+                ConfigurationSection customNamesSection = config.getConfigurationSection(path + ".custom-names");
+                if (customNamesSection != null) {
+                    for (String totemIdString : customNamesSection.getKeys(false)) {
+                        try {
+                            UUID totemId = UUID.fromString(totemIdString);
+                            String customName = customNamesSection.getString(totemIdString);
+                            if (customName != null) {
+                                customNames.put(totemId, customName);
+                            }
+                        } catch (IllegalArgumentException e) {
+                            logger.warning("UUID de totem inválido em custom names: " + totemIdString);
+                        }
+                    }
+                }
+
+                // Carrega último teleporte
+                long lastTeleport = config.getLong(path + ".last-teleport", 0);
+
+                // Carrega último nome conhecido
+                String name = config.getString(path + ".name");
+
+                records.add(new PlayerRecord(playerId, registered, customNames, lastTeleport, name));
+
+            } catch (Exception e) {
+                logger.warning("Erro ao carregar dados do jogador " + playerIdString + ": " + e.getMessage());
+            }
+        }
+
+        return records;
+    }
+
+    private static void writeYaml(File file, List<PlayerRecord> records) throws IOException {
+        FileConfiguration config = new YamlConfiguration();
+
+        for (PlayerRecord record : records) {
+            String path = "players." + record.playerId().toString();
+
+            // Salva totems registrados
+            List<String> registeredList = new ArrayList<>();
+            for (UUID totemId : record.registeredTotems()) {
+                registeredList.add(totemId.toString());
+            }
+            config.set(path + ".registered-totems", registeredList);
+
+            // Salva nomes customizados
+            for (Map.Entry<UUID, String> entry : record.customNames().entrySet()) {
+                String customPath = path + ".custom-names." + entry.getKey().toString();
+                config.set(customPath, entry.getValue());
+            }
+
+            // Salva último teleporte
+            config.set(path + ".last-teleport", record.lastTeleport());
+
+            // Salva último nome conhecido
+            if (record.name() != null) {
+                config.set(path + ".name", record.name());
+            }
+        }
+
+        config.save(file);
+    }
+
+    // ========== BINÁRIO ==========
+
+    private static List<PlayerRecord> readBinary(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), SnapshotFiles.BUFFER_SIZE))) {
+
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file.getName() + " não é um snapshot de jogadores");
+            }
+
+            short version = in.readShort();
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Versão de snapshot não suportada: " + version);
+            }
+
+            int count = in.readInt();
+            List<PlayerRecord> records = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                UUID playerId = BinaryIO.readUuid(in);
+                long lastTeleport = in.readLong();
+                String name = version >= 2 && in.readBoolean() ? in.readUTF() : null;
+
+                int registeredCount = in.readInt();
+                List<UUID> registered = new ArrayList<>(registeredCount);
+                for (int j = 0; j < registeredCount; j++) {
+                    registered.add(BinaryIO.readUuid(in));
+                }
+
+                int namesCount = in.readInt();
+                Map<UUID, String> customNames = new HashMap<>(Math.max(4, namesCount * 2));
+                for (int j = 0; j < namesCount; j++) {
+                    customNames.put(BinaryIO.readUuid(in), in.readUTF());
+                }
+
+                records.add(new PlayerRecord(playerId, registered, customNames, lastTeleport, name));
+            }
+
+            return records;
+        }
+    }
+
+    private static void writeBinary(File file, List<PlayerRecord> records) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), SnapshotFiles.BUFFER_SIZE))) {
+
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(records.size());
+
+            for (PlayerRecord record : records) {
+                BinaryIO.writeUuid(out, record.playerId());
+                out.writeLong(record.lastTeleport());
+                out.writeBoolean(record.name() != null);
+                if (record.name() != null) {
+                    out.writeUTF(record.name());
+                }
+
+                out.writeInt(record.registeredTotems().size());
+                for (UUID totemId : record.registeredTotems()) {
+                    BinaryIO.writeUuid(out, totemId);
+                }
+
+                out.writeInt(record.customNames().size());
+                for (Map.Entry<UUID, String> entry : record.customNames().entrySet()) {
+                    BinaryIO.writeUuid(out, entry.getKey());
+                    out.writeUTF(entry.getValue());
+                }
+            }
+        }
+    }
+}
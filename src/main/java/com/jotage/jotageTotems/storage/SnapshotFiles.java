@@ -0,0 +1,49 @@
+package com.jotage.jotageTotems.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Helpers de arquivo compartilhados pelos codecs de snapshot.
+ */
+final class SnapshotFiles {
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private SnapshotFiles() {
+    }
+
+    static File tempFileFor(File file) {
+        return new File(file.getParentFile(), file.getName() + ".tmp");
+    }
+
+    /**
+     * Troca o arquivo de uma vez, para não corromper em caso de crash.
+     * O conteúdo vai para o disco antes do rename e o diretório depois dele:
+     * quando este método retorna, o snapshot novo sobrevive a uma queda de energia
+     * (e só então o journal pode ser zerado).
+     */
+    static void replace(File tempFile, File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+
+        Files.move(tempFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        syncDirectory(file.getAbsoluteFile().getParentFile().toPath());
+    }
+
+    // Grava a entrada do diretório (o rename). Alguns sistemas (ex.: Windows) não deixam abrir diretórios: ignora
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.jotage.jotageTotems.storage;
+
+/**
+ * Formato dos arquivos de snapshot (totems e dados de jogadores).
+ */
+public enum SnapshotFormat {
+
+    YAML(".yml"),
+    BINARY(".dat");
+
+    private final String extension;
+
+    SnapshotFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // O outro formato (origem da migração quando o storage.format muda)
+    public SnapshotFormat other() {
+        return this == YAML ? BINARY : YAML;
+    }
+
+    public static SnapshotFormat fromName(String name) {
+        if (name != null && name.equalsIgnoreCase("binary")) {
+            return BINARY;
+        }
+        return YAML;
+    }
+}
@@ -0,0 +1,20 @@
+package com.jotage.jotageTotems.storage;
+
+import java.util.UUID;
+
+/**
+ * Cópia imutável dos dados persistentes de um totem.
+ * Capturada na main thread e gravada em disco por outra thread.
+ */
+public record TotemRecord(
+        UUID id,
+        UUID ownerId,
+        String name,
+        String world,
+        int x,
+        int y,
+        int z,
+        String material,
+        long createdAt
+) {
+}
@@ -0,0 +1,198 @@
+package com.jotage.jotageTotems.storage;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.*;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Lê e grava o snapshot de totems em YAML (totems.yml) ou binário (totems.dat).
+ *
+ * Formato binário (versão 1):
+ * <pre>
+ * int magic, short versão
+ * int nº de mundos,    UTF nome...      (tabela de strings)
+ * int nº de materiais, UTF nome...      (tabela de strings)
+ * int nº de totems
+ *   long, long id | long, long dono | UTF nome | int mundo | int x, y, z | int material | long criado
+ * </pre>
+ */
+public final class TotemSnapshotCodec {
+
+    private static final int MAGIC = 0x4A54544D; // "JTTM"
+    private static final short VERSION = 1;
+
+    private TotemSnapshotCodec() {
+    }
+
+    public static List<TotemRecord> read(File file, SnapshotFormat format, Logger logger) throws IOException {
+        if (!file.exists() || file.length() == 0) {
+            return new ArrayList<>();
+        }
+
+        return format == SnapshotFormat.BINARY ? readBinary(file) : readYaml(file, logger);
+    }
+
+    public static void write(File file, SnapshotFormat format, List<TotemRecord> records) throws IOException {
+        File tempFile = SnapshotFiles.tempFileFor(file);
+
+        if (format == SnapshotFormat.BINARY) {
+            writeBinary(tempFile, records);
+        } else {
+            writeYaml(tempFile, records);
+        }
+
+        SnapshotFiles.replace(tempFile, file);
+    }
+
+    // ========== YAML ==========
+
+    private static List<TotemRecord> readYaml(File file, Logger logger) {
+        FileConfiguration config = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection totemsSection = config.getConfigurationSection("totems");
+
+        List<TotemRecord> records = new ArrayList<>();
+
+        if (totemsSection == null) {
+            return records;
+        }
+
+        // Para cada totem salvo
+        for (String idString : totemsSection.getKeys(false)) {
+            try {
+                String path = "totems." + idString;
+
+                records.add(new TotemRecord(
+                        UUID.fromString(idString),
+                        UUID.fromString(config.getString(path + ".owner")),
+                        config.getString(path + ".name"),
+                        config.getString(path + ".world"),
+                        (int) Math.floor(config.getDouble(path + ".x")),
+                        (int) Math.floor(config.getDouble(path + ".y")),
+                        (int) Math.floor(config.getDouble(path + ".z")),
+                        config.getString(path + ".material"),
+                        config.getLong(path + ".created", System.currentTimeMillis())
+                ));
+            } catch (Exception e) {
+                logger.warning("Erro ao carregar totem " + idString + ": " + e.getMessage());
+            }
+        }
+
+        return records;
+    }
+
+    private static void writeYaml(File file, List<TotemRecord> records) throws IOException {
+        FileConfiguration config = new YamlConfiguration();
+
+        // Para cada totem, salva suas informações
+        for (TotemRecord record : records) {
+            String path = "totems." + record.id().toString();
+
+            config.set(path + ".name", record.name());
+            config.set(path + ".owner", record.ownerId().toString());
+            config.set(path + ".world", record.world());
+            config.set(path + ".x", record.x());
+            config.set(path + ".y", record.y());
+            config.set(path + ".z", record.z());
+            config.set(path + ".material", record.material());
+            config.set(path + ".created", record.createdAt());
+        }
+
+        config.save(file);
+    }
+
+    // ========== BINÁRIO ==========
+
+    private static List<TotemRecord> readBinary(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), SnapshotFiles.BUFFER_SIZE))) {
+
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file.getName() + " não é um snapshot de totems");
+            }
+
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Versão de snapshot não suportada: " + version);
+            }
+
+            String[] worlds = readStringTable(in);
+            String[] materials = readStringTable(in);
+
+            int count = in.readInt();
+            List<TotemRecord> records = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                UUID id = BinaryIO.readUuid(in);
+                UUID ownerId = BinaryIO.readUuid(in);
+                String name = in.readUTF();
+                String world = worlds[in.readInt()];
+                int x = in.readInt();
+                int y = in.readInt();
+                int z = in.readInt();
+                String material = materials[in.readInt()];
+                long createdAt = in.readLong();
+
+                records.add(new TotemRecord(id, ownerId, name, world, x, y, z, material, createdAt));
+            }
+
+            return records;
+        }
+    }
+
+    private static void writeBinary(File file, List<TotemRecord> records) throws IOException {
+        // Monta as tabelas de strings repetidas (mundos e materiais)
+        Map<String, Integer> worlds = new LinkedHashMap<>();
+        Map<String, Integer> materials = new LinkedHashMap<>();
+
+        for (TotemRecord record : records) {
+            worlds.putIfAbsent(record.world(), worlds.size());
+            materials.putIfAbsent(record.material(), materials.size());
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), SnapshotFiles.BUFFER_SIZE))) {
+
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+
+            writeStringTable(out, worlds.keySet());
+            writeStringTable(out, materials.keySet());
+
+            out.writeInt(records.size());
+
+            for (TotemRecord record : records) {
+                BinaryIO.writeUuid(out, record.id());
+                BinaryIO.writeUuid(out, record.ownerId());
+                out.writeUTF(record.name());
+                out.writeInt(worlds.get(record.world()));
+                out.writeInt(record.x());
+                out.writeInt(record.y());
+                out.writeInt(record.z());
+                out.writeInt(materials.get(record.material()));
+                out.writeLong(record.createdAt());
+            }
+        }
+    }
+
+    private static String[] readStringTable(DataInputStream in) throws IOException {
+        String[] table = new String[in.readInt()];
+
+        for (int i = 0; i < table.length; i++) {
+            table[i] = in.readUTF();
+        }
+
+        return table;
+    }
+
+    private static void writeStringTable(DataOutputStream out, Collection<String> table) throws IOException {
+        out.writeInt(table.size());
+
+        for (String value : table) {
+            out.writeUTF(value);
+        }
+    }
+}
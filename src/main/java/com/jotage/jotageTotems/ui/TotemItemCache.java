@@ -0,0 +1,96 @@
+package com.jotage.jotageTotems.ui;
+
+import com.jotage.jotageTotems.models.Totem;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Cache dos itens do menu, por totem.
+ * Cada totem tem o item com o nome original e uma variante por nome customizado.
+ * A entrada guarda a versão do totem em que foi montada: renomear o totem invalida sozinho.
+ * Guarda no máximo {@link #MAX_ENTRIES} totems; passando disso, sai o usado há mais tempo (LRU).
+ * Só deve ser usado na main thread.
+ */
+class TotemItemCache {
+
+    // Bem acima do que os menus abertos mostram ao mesmo tempo (28 totems por página)
+    static final int MAX_ENTRIES = 2048;
+
+    private static final class Entry {
+
+        private final int totemVersion;
+        private ItemStack original;
+        private Map<String, ItemStack> customNamed;
+
+        private Entry(int totemVersion) {
+            this.totemVersion = totemVersion;
+        }
+    }
+
+    private final Map<UUID, Entry> entries;
+    private final BiFunction<Totem, String, ItemStack> renderer;
+
+    TotemItemCache(BiFunction<Totem, String, ItemStack> renderer) {
+        // accessOrder = true: get() move a entrada para o fim, a mais antiga fica no começo
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, TotemItemCache.Entry> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+        this.renderer = renderer;
+    }
+
+    /**
+     * Item do totem como o jogador o vê. {@code customName} null = nome original.
+     * O ItemStack devolvido é compartilhado: não altere, só coloque no inventário (que copia).
+     */
+    ItemStack get(Totem totem, String customName) {
+        Entry entry = entries.get(totem.getId());
+
+        if (entry == null || entry.totemVersion != totem.getVersion()) {
+            entry = new Entry(totem.getVersion());
+            entries.put(totem.getId(), entry);
+        }
+
+        if (customName == null) {
+            if (entry.original == null) {
+                entry.original = renderer.apply(totem, null);
+            }
+            return entry.original;
+        }
+
+        if (entry.customNamed == null) {
+            entry.customNamed = new HashMap<>(4);
+        }
+
+        ItemStack item = entry.customNamed.get(customName);
+        if (item == null) {
+            item = renderer.apply(totem, customName);
+            entry.customNamed.put(customName, item);
+        }
+
+        return item;
+    }
+
+    void invalidate(UUID totemId) {
+        entries.remove(totemId);
+    }
+
+    void invalidateCustomName(UUID totemId, String customName) {
+        Entry entry = entries.get(totemId);
+
+        if (entry != null && entry.customNamed != null) {
+            entry.customNamed.remove(customName);
+        }
+    }
+
+    void clear() {
+        entries.clear();
+    }
+}
@@ -10,11 +10,11 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
-import java.text.SimpleDateFormat;
 import java.util.*;
 
 public class TotemMenu implements Listener {
@@ -22,86 +22,267 @@ public class TotemMenu implements Listener {
     private final JotageTotems plugin;
     private static final String MENU_TITLE = ChatColor.DARK_PURPLE + "Seus Totens";
     private static final int MENU_SIZE = 54;
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+    private static final int[] BORDER_SLOTS = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 17, 18, 26, 27, 35, 36, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53};
+    // Miolo 7x4 dentro da moldura: 28 totems por página
+    private static final int[] CONTENT_SLOTS = {
+            10, 11, 12, 13, 14, 15, 16,
+            19, 20, 21, 22, 23, 24, 25,
+            28, 29, 30, 31, 32, 33, 34,
+            37, 38, 39, 40, 41, 42, 43
+    };
+    private static final int PREVIOUS_SLOT = 45;
+    private static final int INDICATOR_SLOT = 49;
+    private static final int NEXT_SLOT = 53;
+
+    private final TotemItemCache itemCache;
+
+    // Moldura fixa, montada uma vez; cada abertura parte de uma cópia deste array
+    private final ItemStack[] borderContents;
+    private final ItemStack previousButton;
+    private final ItemStack nextButton;
+
+    // Registro de quem está vendo cada totem: totem -> menus abertos que o mostram
+    private final Map<UUID, Set<TotemMenuHolder>> viewers;
 
     public TotemMenu(JotageTotems plugin) {
         this.plugin = plugin;
+        this.itemCache = new TotemItemCache(this::createTotemItem);
+        this.borderContents = buildBorder();
+        this.previousButton = createButton(ChatColor.YELLOW + "« Página anterior");
+        this.nextButton = createButton(ChatColor.YELLOW + "Próxima página »");
+        this.viewers = new HashMap<>();
+    }
+
+    private static ItemStack[] buildBorder() {
+        ItemStack glassPane = new ItemStack(Material.PURPLE_STAINED_GLASS_PANE, 1);
+        ItemMeta metaGlass = glassPane.getItemMeta();
+        metaGlass.setDisplayName(".");
+        glassPane.setItemMeta(metaGlass);
+
+        ItemStack[] contents = new ItemStack[MENU_SIZE];
+        for (int slot : BORDER_SLOTS) {
+            contents[slot] = glassPane;
+        }
+
+        return contents;
+    }
+
+    // ========== ATUALIZAÇÃO DOS MENUS ABERTOS ==========
+    // Cada mudança invalida o cache e corrige só os slots que mostram o totem afetado
+
+    public void onTotemRemoved(UUID totemId) {
+        itemCache.invalidate(totemId);
+
+        Set<TotemMenuHolder> holders = viewers.remove(totemId);
+        if (holders == null) {
+            return;
+        }
+
+        // Totem destruído some dos menus abertos (não dá mais para clicar nele)
+        for (TotemMenuHolder holder : holders) {
+            for (int slot : CONTENT_SLOTS) {
+                if (totemId.equals(holder.getTotemAt(slot))) {
+                    holder.setTotemAt(slot, null);
+                    holder.getInventory().setItem(slot, null);
+                }
+            }
+        }
+    }
+
+    public void onTotemRenamed(Totem totem) {
+        // A versão do totem mudou: o cache já não serve, só falta atualizar quem está vendo
+        itemCache.invalidate(totem.getId());
+        patchViewers(totem, null);
+    }
+
+    public void onOwnerNameChanged(UUID ownerId) {
+        for (Totem totem : plugin.getTotemManager().getTotemsByOwner(ownerId)) {
+            itemCache.invalidate(totem.getId());
+            patchViewers(totem, null);
+        }
+    }
+
+    public void onCustomNameChanged(UUID playerId, UUID totemId, String oldCustomName) {
+        if (oldCustomName != null) {
+            itemCache.invalidateCustomName(totemId, oldCustomName);
+        }
+
+        // O nome customizado só aparece no menu do próprio jogador
+        Totem totem = plugin.getTotemManager().getTotemById(totemId);
+        if (totem != null) {
+            patchViewers(totem, playerId);
+        }
+    }
+
+    // Reescreve os slots do totem nos menus abertos ({@code onlyViewer} null = todos)
+    private void patchViewers(Totem totem, UUID onlyViewer) {
+        Set<TotemMenuHolder> holders = viewers.get(totem.getId());
+        if (holders == null) {
+            return;
+        }
+
+        for (TotemMenuHolder holder : holders) {
+            if (onlyViewer != null && !onlyViewer.equals(holder.getViewerId())) {
+                continue;
+            }
+
+            String customName = plugin.getPlayerDataManager().getCustomName(holder.getViewerId(), totem.getId());
+            ItemStack item = itemCache.get(totem, customName);
+
+            for (int slot : CONTENT_SLOTS) {
+                if (totem.getId().equals(holder.getTotemAt(slot))) {
+                    holder.getInventory().setItem(slot, item);
+                }
+            }
+        }
+    }
+
+    private void track(TotemMenuHolder holder) {
+        for (int slot : CONTENT_SLOTS) {
+            UUID totemId = holder.getTotemAt(slot);
+            if (totemId != null) {
+                viewers.computeIfAbsent(totemId, k -> new HashSet<>()).add(holder);
+            }
+        }
+    }
+
+    private void untrack(TotemMenuHolder holder) {
+        for (int slot : CONTENT_SLOTS) {
+            UUID totemId = holder.getTotemAt(slot);
+            if (totemId == null) {
+                continue;
+            }
+
+            Set<TotemMenuHolder> holders = viewers.get(totemId);
+            if (holders != null) {
+                holders.remove(holder);
+                if (holders.isEmpty()) {
+                    viewers.remove(totemId);
+                }
+            }
+        }
     }
 
     public void open(Player player) {
         UUID playerId = player.getUniqueId();
 
-        // Pega os dados do jogador
-        PlayerTotemData data = plugin.getPlayerDataManager().getPlayerData(playerId);
+        // Pega os dados do jogador (sem criar: só abrir o menu não deve gerar registro)
+        PlayerTotemData data = plugin.getPlayerDataManager().findPlayerData(playerId);
 
         // Verifica se tem totens registrados
-        if (data.hasNoTotems()) {
+        if (data == null || data.hasNoTotems()) {
             plugin.getMessageManager().sendMessage(player, "error-no-totems");
             return;
         }
 
-        // Cria o inventário
-        Inventory inventory = buildInventory(player);
+        // Cria o inventário (sempre começa na primeira página)
+        TotemMenuHolder holder = new TotemMenuHolder(playerId, MENU_SIZE);
+        Inventory inventory = Bukkit.createInventory(holder, MENU_SIZE, MENU_TITLE);
+        holder.setInventory(inventory);
+        render(player, holder, 0);
 
         // Abre para o jogador
         player.openInventory(inventory);
     }
 
-    private Inventory buildInventory(Player player) {
+    /**
+     * Preenche o inventário com a página pedida (ajustada se o número de páginas diminuiu).
+     * Só monta os itens da página: o custo não depende de quantos totems o jogador tem.
+     */
+    private void render(Player player, TotemMenuHolder holder, int requestedPage) {
         UUID playerId = player.getUniqueId();
 
-        // Cria inventário vazio
-        Inventory inventory = Bukkit.createInventory(null, MENU_SIZE, MENU_TITLE);
+        // Pega os totens registrados (na ordem de registro); sem criar registro para quem não tem
+        PlayerTotemData data = plugin.getPlayerDataManager().findPlayerData(playerId);
+        int total = data == null ? 0 : data.getRegisteredTotemsCount();
 
-        // Pega os totens registrados
-        PlayerTotemData data = plugin.getPlayerDataManager().getPlayerData(playerId);
-        Set<UUID> registeredTotems = data.getRegisteredTotems();
-
-        ItemStack glassPane = new ItemStack(Material.PURPLE_STAINED_GLASS_PANE, 1);
-        ItemMeta metaGlass = glassPane.getItemMeta();
-        metaGlass.setDisplayName(".");
-        glassPane.setItemMeta(metaGlass);
+        ItemStack[] contents = borderContents.clone();
+        List<UUID> invalid = null;
 
-        int[] slots = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 17, 18, 26, 27, 35, 36, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53};
+        // Sai do registro com a página antiga; entra de novo com a nova no final
+        untrack(holder);
+        holder.clearTotems();
 
-        for (int slot : slots) {
-            inventory.setItem(slot, glassPane);
-        }
+        int page = clampPage(requestedPage, total);
+        int index = page * CONTENT_SLOTS.length;
+        int filled = 0;
 
-        int slot = 0;
+        while (filled < CONTENT_SLOTS.length && index < total) {
+            UUID totemId = data.getRegisteredTotem(index++);
 
-        // Para cada totem registrado
-        for (UUID totemId : registeredTotems) {
             // Pega o totem do TotemManager
             Totem totem = plugin.getTotemManager().getTotemById(totemId);
 
             // Verifica se o totem ainda existe
             if (totem == null || !totem.isValid()) {
-                // Totem foi destruído, remove do jogador
-                plugin.getPlayerDataManager().unregisterTotem(playerId, totemId);
+                // Totem foi destruído, remove do jogador depois de montar a página
+                if (invalid == null) {
+                    invalid = new ArrayList<>();
+                }
+                invalid.add(totemId);
                 continue;
             }
 
-            // Cria o item que representa o totem
-            ItemStack item = createTotemItem(player, totem);
+            // Item já montado do cache (o inventário faz a cópia)
+            int slot = CONTENT_SLOTS[filled++];
+            contents[slot] = itemCache.get(totem, data.getCustomName(totemId));
+            holder.setTotemAt(slot, totemId);
+        }
 
-            // Adiciona ao inventário
-            while (inventory.getItem(slot) != null) {
-                slot++;
+        if (invalid != null) {
+            for (UUID totemId : invalid) {
+                plugin.getPlayerDataManager().unregisterTotem(playerId, totemId);
             }
-            inventory.setItem(slot, item);
-            slot++;
+            total = data.getRegisteredTotemsCount();
+            page = clampPage(page, total);
+        }
 
-            // Se chegou no limite do inventário, para
-            if (slot >= MENU_SIZE) {
-                break;
-            }
+        // ===== CONTROLES DE PÁGINA =====
+        int pages = pageCount(total);
+
+        if (page > 0) {
+            contents[PREVIOUS_SLOT] = previousButton;
+        }
+        if (page < pages - 1) {
+            contents[NEXT_SLOT] = nextButton;
         }
+        contents[INDICATOR_SLOT] = createPageIndicator(page, pages);
+
+        holder.setPage(page, pages);
+        holder.getInventory().setContents(contents);
+        track(holder);
+    }
+
+    private static int pageCount(int totemCount) {
+        return Math.max(1, (totemCount + CONTENT_SLOTS.length - 1) / CONTENT_SLOTS.length);
+    }
+
+    private static int clampPage(int page, int totemCount) {
+        return Math.max(0, Math.min(page, pageCount(totemCount) - 1));
+    }
 
-        return inventory;
+    private static ItemStack createButton(String name) {
+        ItemStack button = new ItemStack(Material.ARROW, 1);
+        ItemMeta meta = button.getItemMeta();
+        meta.setDisplayName(name);
+        button.setItemMeta(meta);
+        return button;
     }
 
-    private ItemStack createTotemItem(Player player, Totem totem) {
+    private static ItemStack createPageIndicator(int page, int pages) {
+        ItemStack indicator = new ItemStack(Material.PAPER, 1);
+        ItemMeta meta = indicator.getItemMeta();
+        meta.setDisplayName(ChatColor.GOLD + "Página " + (page + 1) + "/" + pages);
+        indicator.setItemMeta(meta);
+        return indicator;
+    }
+
+    private void changePage(Player player, TotemMenuHolder holder, int delta) {
+        // Reaproveita o inventário aberto, só troca o conteúdo
+        render(player, holder, holder.getPage() + delta);
+    }
+
+    private ItemStack createTotemItem(Totem totem, String customName) {
         // Material do item (mesmo do bloco do totem)
         Material material = totem.getBlockMaterial();
         ItemStack item = new ItemStack(material, 1);
@@ -113,9 +294,8 @@ public class TotemMenu implements Listener {
 
         // ===== NOME DO ITEM =====
 
-        // Verifica se jogador tem nome customizado para este totem
+        // Nome customizado do jogador (se houver) ou o nome original
         String displayName;
-        String customName = plugin.getPlayerDataManager().getCustomName(player.getUniqueId(), totem.getId());
 
         if (customName != null) {
             // Usa nome customizado (roxo)
@@ -131,11 +311,8 @@ public class TotemMenu implements Listener {
 
         List<String> lore = new ArrayList<>();
 
-        // Nome do dono
-        String ownerName = Bukkit.getOfflinePlayer(totem.getOwnerId()).getName();
-        if (ownerName == null) {
-            ownerName = "Desconhecido";
-        }
+        // Nome do dono (do cache; se ainda não tiver, mostra um placeholder e atualiza quando chegar)
+        String ownerName = plugin.getPlayerDataManager().getOwnerDisplayName(totem.getOwnerId());
         lore.add(ChatColor.GRAY + "Dono: " + ChatColor.WHITE + ownerName);
 
         // Localização
@@ -148,8 +325,7 @@ public class TotemMenu implements Listener {
         lore.add(ChatColor.GRAY + "Mundo: " + ChatColor.WHITE + totem.getWorld().getName());
 
         // Data de criação
-        String date = DATE_FORMAT.format(new Date(totem.getCreatedAt()));
-        lore.add(ChatColor.GRAY + "Criado: " + ChatColor.WHITE + date);
+        lore.add(ChatColor.GRAY + "Criado: " + ChatColor.WHITE + totem.getFormattedCreatedAt());
 
         // Linha vazia
         lore.add("");
@@ -160,14 +336,6 @@ public class TotemMenu implements Listener {
 
         meta.setLore(lore);
 
-        // ===== MARCA O ITEM (para identificar no click) =====
-        // Usamos PersistentDataContainer para guardar o UUID do totem
-        meta.getPersistentDataContainer().set(
-                new org.bukkit.NamespacedKey(plugin, "totem_id"),
-                org.bukkit.persistence.PersistentDataType.STRING,
-                totem.getId().toString()
-        );
-
         item.setItemMeta(meta);
         return item;
     }
@@ -179,49 +347,32 @@ public class TotemMenu implements Listener {
             return;
         }
 
-        Player player = (Player) event.getWhoClicked();
-
-        // Verifica se é nosso menu (pelo título)
-        if (!event.getView().getTitle().equals(MENU_TITLE)) {
+        // Verifica se é nosso menu (um instanceof; cliques em outros inventários saem aqui)
+        if (!(event.getView().getTopInventory().getHolder(false) instanceof TotemMenuHolder holder)) {
             return;
         }
 
+        Player player = (Player) event.getWhoClicked();
+
         // Cancela o evento (não permite pegar itens)
         event.setCancelled(true);
 
-        // Verifica se clicou em um item
-        ItemStack clickedItem = event.getCurrentItem();
+        int rawSlot = event.getRawSlot();
 
-        if (clickedItem == null || clickedItem.getType() == Material.AIR) {
+        // ===== CONTROLES DE PÁGINA =====
+        if (rawSlot == PREVIOUS_SLOT && holder.hasPreviousPage()) {
+            changePage(player, holder, -1);
             return;
         }
 
-        // Pega o UUID do totem do item
-        ItemMeta meta = clickedItem.getItemMeta();
-        if (meta == null) {
+        if (rawSlot == NEXT_SLOT && holder.hasNextPage()) {
+            changePage(player, holder, 1);
             return;
         }
 
-        org.bukkit.NamespacedKey key = new org.bukkit.NamespacedKey(plugin, "totem_id");
-
-        if (!meta.getPersistentDataContainer().has(key, org.bukkit.persistence.PersistentDataType.STRING)) {
-            return; // Não é um item de totem
-        }
-
-        String totemIdString = meta.getPersistentDataContainer().get(
-                key,
-                org.bukkit.persistence.PersistentDataType.STRING
-        );
-
-        if (totemIdString == null) {
-            return;
-        }
-
-        UUID totemId;
-        try {
-            totemId = UUID.fromString(totemIdString);
-        } catch (IllegalArgumentException e) {
-            plugin.getLogger().warning("UUID de totem inválido no menu: " + totemIdString);
+        // Totem do slot clicado (null = moldura, controles ou inventário do jogador)
+        UUID totemId = holder.getTotemAt(rawSlot);
+        if (totemId == null) {
             return;
         }
 
@@ -264,8 +415,7 @@ public class TotemMenu implements Listener {
         boolean isAdmin = player.hasPermission("totem.admin");
 
         if (!isOwner && !isAdmin) {
-            player.sendMessage(ChatColor.RED + "✗ Você não tem permissão para renomear este totem!");
-            player.sendMessage(ChatColor.GRAY + "(Apenas o dono ou admins podem renomear)");
+            plugin.getMessageManager().sendMessage(player, "rename-no-permission");
             return;
         }
 
@@ -274,12 +424,10 @@ public class TotemMenu implements Listener {
         plugin.getChatListener().waitForRename(player, totem.getId());
     }
 
-    public void refresh(Player player) {
-        // Se o jogador está com o menu aberto
-        if (player.getOpenInventory().getTitle().equals(MENU_TITLE)) {
-            // Reconstrói e atualiza
-            Inventory newInventory = buildInventory(player);
-            player.getOpenInventory().getTopInventory().setContents(newInventory.getContents());
+    @EventHandler
+    public void onInventoryClose(InventoryCloseEvent event) {
+        if (event.getInventory().getHolder(false) instanceof TotemMenuHolder holder) {
+            untrack(holder);
         }
     }
 }
@@ -0,0 +1,71 @@
+package com.jotage.jotageTotems.ui;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Dono do inventário do menu de totems.
+ * Identifica o menu com um instanceof (sem comparar títulos) e guarda qual totem está em cada slot,
+ * para o click ser resolvido por índice, sem ler ItemMeta.
+ */
+public class TotemMenuHolder implements InventoryHolder {
+
+    private final UUID viewerId;
+    private final UUID[] slotTotems;
+    private Inventory inventory;
+    private int page;
+    private int pageCount;
+
+    TotemMenuHolder(UUID viewerId, int size) {
+        this.viewerId = viewerId;
+        this.slotTotems = new UUID[size];
+        this.page = 0;
+        this.pageCount = 1;
+    }
+
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    void setInventory(Inventory inventory) {
+        this.inventory = inventory;
+    }
+
+    public UUID getViewerId() {
+        return viewerId;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    void setPage(int page, int pageCount) {
+        this.page = page;
+        this.pageCount = pageCount;
+    }
+
+    public boolean hasPreviousPage() {
+        return page > 0;
+    }
+
+    public boolean hasNextPage() {
+        return page < pageCount - 1;
+    }
+
+    // Totem no slot, ou null (moldura, controles, fora do menu)
+    public UUID getTotemAt(int slot) {
+        return slot >= 0 && slot < slotTotems.length ? slotTotems[slot] : null;
+    }
+
+    void setTotemAt(int slot, UUID totemId) {
+        slotTotems[slot] = totemId;
+    }
+
+    void clearTotems() {
+        Arrays.fill(slotTotems, null);
+    }
+}
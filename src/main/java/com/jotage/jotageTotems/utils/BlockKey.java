@@ -0,0 +1,24 @@
+package com.jotage.jotageTotems.utils;
+
+/**
+ * Empacota coordenadas de bloco/chunk em um long, para índices sem alocar objetos.
+ * Bloco: x e z com 26 bits, y com 12 bits (mesmo layout do BlockPos do Minecraft).
+ * Chunk: mesmo layout do Chunk#getChunkKey() do Paper.
+ */
+public final class BlockKey {
+
+    private BlockKey() {
+    }
+
+    public static long blockKey(int x, int y, int z) {
+        return (((long) x & 0x3FFFFFFL) << 38) | (((long) z & 0x3FFFFFFL) << 12) | ((long) y & 0xFFFL);
+    }
+
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX & 0xFFFFFFFFL) | (((long) chunkZ & 0xFFFFFFFFL) << 32);
+    }
+
+    public static long chunkKeyOfBlock(int blockX, int blockZ) {
+        return chunkKey(blockX >> 4, blockZ >> 4);
+    }
+}
@@ -0,0 +1,176 @@
+package com.jotage.jotageTotems.utils;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Mapa long -> objeto com endereçamento aberto (sondagem linear).
+ * Não cria objetos em get/containsKey, ao contrário de um HashMap&lt;Long, V&gt;.
+ * Valores null não são permitidos (null marca slot vazio). Não é thread-safe.
+ */
+public class LongObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(long key) {
+        // Mistura os bits (murmur3 fmix64) para espalhar chaves de coordenadas próximas
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int index = hash(key) & mask;
+
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                return (V) values[index];
+            }
+            index = (index + 1) & mask;
+        }
+
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("LongObjectMap não aceita valores null");
+        }
+
+        int index = hash(key) & mask;
+
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+
+        if (++size > resizeAt) {
+            resize();
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int index = hash(key) & mask;
+
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                shiftBack(index);
+                size--;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return null;
+    }
+
+    // Remoção sem tombstones: puxa de volta os elementos seguintes da mesma sequência de sondagem
+    private void shiftBack(int gap) {
+        int index = gap;
+
+        while (true) {
+            index = (index + 1) & mask;
+
+            if (values[index] == null) {
+                break;
+            }
+
+            int home = hash(keys[index]) & mask;
+
+            // Só move se o slot "home" não estiver entre o gap e a posição atual (circularmente)
+            boolean movable = gap <= index
+                    ? (home <= gap || home > index)
+                    : (home <= gap && home > index);
+
+            if (movable) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+
+        values[gap] = null;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        allocate(keys.length << 1);
+
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int index = hash(oldKeys[i]) & mask;
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<V> action) {
+        for (Object value : values) {
+            if (value != null) {
+                action.accept((V) value);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.jotage.jotageTotems.utils;
+
+import java.util.Arrays;
+
+/**
+ * Valores dos placeholders de uma mensagem.
+ * Feito para ser reaproveitado: {@link #clear()} e preencha de novo a cada envio.
+ * Números ficam como primitivos e são escritos direto na saída, sem virar String.
+ * Não é thread-safe.
+ */
+public class MessageArgs {
+
+    private String[] names;
+    private String[] texts;
+    private long[] numbers;
+    private int size;
+
+    public MessageArgs() {
+        this(4);
+    }
+
+    public MessageArgs(int capacity) {
+        int initial = Math.max(1, capacity);
+        this.names = new String[initial];
+        this.texts = new String[initial];
+        this.numbers = new long[initial];
+        this.size = 0;
+    }
+
+    public MessageArgs set(String name, String value) {
+        int index = slotFor(name);
+        texts[index] = value == null ? "" : value;
+        return this;
+    }
+
+    public MessageArgs set(String name, long value) {
+        int index = slotFor(name);
+        texts[index] = null;
+        numbers[index] = value;
+        return this;
+    }
+
+    public MessageArgs clear() {
+        for (int i = 0; i < size; i++) {
+            names[i] = null;
+            texts[i] = null;
+        }
+        size = 0;
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Escreve o valor do placeholder em {@code out}.
+     * Retorna false se o placeholder não foi definido.
+     */
+    boolean appendTo(String name, StringBuilder out) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return false;
+        }
+
+        if (texts[index] != null) {
+            out.append(texts[index]);
+        } else {
+            out.append(numbers[index]);
+        }
+
+        return true;
+    }
+
+    boolean isNumber(int index) {
+        return texts[index] == null;
+    }
+
+    String text(int index) {
+        return texts[index];
+    }
+
+    long number(int index) {
+        return numbers[index];
+    }
+
+    // Poucos placeholders por mensagem: busca linear é mais rápida que um mapa
+    int indexOf(String name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int slotFor(String name) {
+        int index = indexOf(name);
+        if (index >= 0) {
+            return index;
+        }
+
+        if (size == names.length) {
+            int capacity = size << 1;
+            names = Arrays.copyOf(names, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            numbers = Arrays.copyOf(numbers, capacity);
+        }
+
+        names[size] = name;
+        return size++;
+    }
+}
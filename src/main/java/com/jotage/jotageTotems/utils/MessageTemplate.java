@@ -0,0 +1,245 @@
+package com.jotage.jotageTotems.utils;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.legacy.LegacyFormat;
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mensagem pré-compilada: trechos literais intercalados com placeholders {nome}.
+ * Compilada uma vez no carregamento do messages.yml (formato legado com '&amp;').
+ *
+ * Guarda duas formas prontas:
+ * - String legada (§), renderizada numa única passada;
+ * - Component do Adventure: cada trecho literal já vem parseado, e o valor do
+ *   placeholder entra como um nó de texto com o estilo ativo naquele ponto.
+ *   Mensagens sem placeholder devolvem sempre o mesmo Component.
+ *
+ * Imutável, pode ser compartilhada entre threads.
+ */
+public final class MessageTemplate {
+
+    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacyAmpersand();
+
+    // literals[i] vem antes de placeholders[i]; o último literal fecha a mensagem
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private final Component[] literalComponents;
+    private final Style[] placeholderStyles;
+
+    private MessageTemplate(String[] rawLiterals, String[] placeholders) {
+        this.placeholders = placeholders;
+        this.literals = new String[rawLiterals.length];
+        this.literalComponents = new Component[rawLiterals.length];
+        this.placeholderStyles = new Style[placeholders.length];
+
+        int length = 0;
+        LegacyState state = new LegacyState();
+
+        for (int i = 0; i < rawLiterals.length; i++) {
+            literals[i] = ChatColor.translateAlternateColorCodes('&', rawLiterals[i]);
+            length += literals[i].length();
+
+            // No formato legado a cor continua depois do placeholder; o Component precisa repetir os códigos
+            String carried = state.codes();
+            literalComponents[i] = LEGACY.deserialize(carried + rawLiterals[i]);
+
+            state.apply(rawLiterals[i]);
+            if (i < placeholders.length) {
+                placeholderStyles[i] = state.style();
+            }
+        }
+
+        this.literalLength = length;
+    }
+
+    public static MessageTemplate compile(String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int index = 0;
+
+        while (index < text.length()) {
+            int open = text.indexOf('{', index);
+            int close = open < 0 ? -1 : text.indexOf('}', open + 1);
+
+            if (open < 0 || close < 0) {
+                literal.append(text, index, text.length());
+                break;
+            }
+
+            String name = text.substring(open + 1, close);
+
+            // "{" sem um nome válido é texto normal
+            if (!isPlaceholderName(name)) {
+                literal.append(text, index, open + 1);
+                index = open + 1;
+                continue;
+            }
+
+            literal.append(text, index, open);
+            literals.add(literal.toString());
+            placeholders.add(name);
+            literal.setLength(0);
+
+            index = close + 1;
+        }
+
+        literals.add(literal.toString());
+
+        return new MessageTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    /**
+     * Compila uma mensagem de várias linhas (lista no YAML).
+     * Cada linha começa sem formatação, como se fosse enviada separadamente.
+     */
+    public static MessageTemplate compile(List<String> lines) {
+        return compile(String.join("\n&r", lines));
+    }
+
+    private static boolean isPlaceholderName(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != '_') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // ========== STRING LEGADA ==========
+
+    public String render() {
+        return render(null);
+    }
+
+    /**
+     * Monta a mensagem. Placeholders sem valor em {@code args} ficam como "{nome}".
+     */
+    public String render(MessageArgs args) {
+        if (placeholders.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder out = new StringBuilder(literalLength + 16 * placeholders.length);
+        renderTo(args, out);
+        return out.toString();
+    }
+
+    public void renderTo(MessageArgs args, StringBuilder out) {
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+
+            if (args == null || !args.appendTo(placeholders[i], out)) {
+                out.append('{').append(placeholders[i]).append('}');
+            }
+        }
+
+        out.append(literals[placeholders.length]);
+    }
+
+    // ========== COMPONENT ==========
+
+    public Component component() {
+        return component(null);
+    }
+
+    /**
+     * Monta o Component reaproveitando os trechos já parseados.
+     * O valor do placeholder é texto puro: códigos '&amp;' digitados pelo jogador não viram cor.
+     */
+    public Component component(MessageArgs args) {
+        if (placeholders.length == 0) {
+            return literalComponents[0];
+        }
+
+        TextComponent.Builder builder = Component.text();
+
+        for (int i = 0; i < placeholders.length; i++) {
+            builder.append(literalComponents[i]);
+            builder.append(placeholderComponent(i, args));
+        }
+
+        builder.append(literalComponents[placeholders.length]);
+        return builder.build();
+    }
+
+    private Component placeholderComponent(int index, MessageArgs args) {
+        String name = placeholders[index];
+        Style style = placeholderStyles[index];
+
+        int slot = args == null ? -1 : args.indexOf(name);
+        if (slot < 0) {
+            return Component.text("{" + name + "}", style);
+        }
+
+        if (args.isNumber(slot)) {
+            return Component.text(args.number(slot), style);
+        }
+
+        return Component.text(args.text(slot), style);
+    }
+
+    /**
+     * Acompanha os códigos legados ativos ao longo dos trechos,
+     * para saber o estilo de cada placeholder e o que repetir no trecho seguinte.
+     */
+    private static final class LegacyState {
+
+        private final StringBuilder codes = new StringBuilder();
+        private Style style = Style.empty();
+
+        void apply(String raw) {
+            for (int i = 0; i + 1 < raw.length(); i++) {
+                if (raw.charAt(i) != '&') {
+                    continue;
+                }
+
+                char code = raw.charAt(i + 1);
+                LegacyFormat format = LegacyComponentSerializer.parseChar(code);
+                if (format == null) {
+                    continue;
+                }
+
+                TextColor color = format.color();
+                if (format.reset()) {
+                    style = Style.empty();
+                    codes.setLength(0);
+                } else if (color != null) {
+                    // Cor nova zera as decorações, como no formato legado
+                    style = Style.style(color);
+                    codes.setLength(0);
+                    codes.append('&').append(code);
+                } else if (format.decoration() != null) {
+                    style = style.decorate(format.decoration());
+                    codes.append('&').append(code);
+                }
+
+                i++;
+            }
+        }
+
+        Style style() {
+            return style;
+        }
+
+        String codes() {
+            return codes.toString();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.jotage.jotageTotems.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Timing wheel com resolução de 1 tick.
+ * Agendar e cancelar é O(1); cada avanço só visita o slot do tick atual.
+ * Prazos maiores que o número de slots ficam no slot e são ignorados até a "volta" certa.
+ * Não é thread-safe: use sempre da mesma thread (a main thread).
+ */
+public class TimerWheel<T> {
+
+    public static final class Timeout<T> {
+
+        private final TimerWheel<T> wheel;
+        private final T item;
+        private final long dueTick;
+        private boolean done;
+
+        private Timeout(TimerWheel<T> wheel, T item, long dueTick) {
+            this.wheel = wheel;
+            this.item = item;
+            this.dueTick = dueTick;
+            this.done = false;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        public void cancel() {
+            if (!done) {
+                done = true;
+                wheel.pending--;
+            }
+        }
+    }
+
+    private final List<Timeout<T>>[] slots;
+    private final int mask;
+    private long currentTick;
+    private int pending;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(int slotCount) {
+        int capacity = Integer.highestOneBit(Math.max(2, slotCount) - 1) << 1;
+
+        this.slots = new List[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new ArrayList<>();
+        }
+
+        this.mask = capacity - 1;
+        this.currentTick = 0;
+        this.pending = 0;
+    }
+
+    /**
+     * Agenda o item para daqui a {@code delayTicks} ticks (mínimo 1).
+     */
+    public Timeout<T> schedule(T item, long delayTicks) {
+        long dueTick = currentTick + Math.max(1L, delayTicks);
+        Timeout<T> timeout = new Timeout<>(this, item, dueTick);
+
+        slots[(int) (dueTick & mask)].add(timeout);
+        pending++;
+
+        return timeout;
+    }
+
+    /**
+     * Avança um tick e dispara os itens vencidos.
+     * O callback pode agendar ou cancelar outros itens com segurança.
+     */
+    public void advance(Consumer<T> action) {
+        currentTick++;
+
+        List<Timeout<T>> slot = slots[(int) (currentTick & mask)];
+        if (slot.isEmpty()) {
+            return;
+        }
+
+        // Separa o que vence agora antes de chamar os callbacks
+        List<Timeout<T>> due = null;
+        int kept = 0;
+
+        for (int i = 0; i < slot.size(); i++) {
+            Timeout<T> timeout = slot.get(i);
+
+            if (timeout.done) {
+                continue;
+            }
+
+            if (timeout.dueTick <= currentTick) {
+                if (due == null) {
+                    due = new ArrayList<>();
+                }
+                due.add(timeout);
+            } else {
+                // Ainda faltam voltas na roda
+                slot.set(kept++, timeout);
+            }
+        }
+
+        slot.subList(kept, slot.size()).clear();
+
+        if (due == null) {
+            return;
+        }
+
+        for (Timeout<T> timeout : due) {
+            if (!timeout.done) {
+                timeout.done = true;
+                pending--;
+                action.accept(timeout.item);
+            }
+        }
+    }
+
+    public int size() {
+        return pending;
+    }
+
+    public boolean isEmpty() {
+        return pending == 0;
+    }
+}
@@ -0,0 +1,57 @@
+package com.jotage.jotageTotems.utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.function.Consumer;
+
+/**
+ * TimerWheel avançada por uma task de 1 tick que só existe enquanto há itens agendados:
+ * começa no primeiro schedule e para sozinha quando a roda esvazia.
+ * Como a TimerWheel, é só da main thread.
+ */
+public class WheelTicker<T> {
+
+    private final Plugin plugin;
+    private final TimerWheel<T> wheel;
+    private final Consumer<T> action;
+    private BukkitTask task;
+
+    public WheelTicker(Plugin plugin, int slotCount, Consumer<T> action) {
+        this.plugin = plugin;
+        this.wheel = new TimerWheel<>(slotCount);
+        this.action = action;
+        this.task = null;
+    }
+
+    /**
+     * Agenda o item e liga o driver, se estiver parado. {@code action} roda quando o item vencer.
+     */
+    public TimerWheel.Timeout<T> schedule(T item, long delayTicks) {
+        TimerWheel.Timeout<T> timeout = wheel.schedule(item, delayTicks);
+
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+
+        return timeout;
+    }
+
+    private void tick() {
+        wheel.advance(action);
+
+        // Nada pendente: para o driver até o próximo schedule
+        if (wheel.isEmpty()) {
+            stop();
+        }
+    }
+
+    // Para o driver; o que ainda estiver na roda só dispara depois de um novo schedule
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.jotage.jotageTotems.bench;
+
+import java.util.Arrays;
+
+/**
+ * Medidor simples usado pelos benchmarks deste pacote (o projeto não tem módulo JMH).
+ * Faz rodadas de aquecimento, mede várias rodadas e imprime a mediana por operação.
+ * Não são testes: o surefire ignora estas classes, cada uma é rodada pelo próprio main.
+ *
+ * Fora daqui fica o RecipeManager.isTotemItem: ItemStack e o PDC dele só funcionam com um servidor
+ * rodando (a paper-api sozinha não tem ItemFactory). Esse caminho se mede no servidor, com o spark.
+ *
+ * Para rodar:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.jotage.jotageTotems.bench.SpatialIndexBenchmark
+ * </pre>
+ */
+final class Bench {
+
+    @FunctionalInterface
+    interface Body {
+        Object run() throws Exception;
+    }
+
+    // Impede o JIT de descartar o resultado medido
+    private static volatile Object sink;
+
+    private Bench() {
+    }
+
+    static void measure(String name, int warmupRounds, int rounds, int opsPerRound, Body body) throws Exception {
+        for (int i = 0; i < warmupRounds; i++) {
+            runRound(opsPerRound, body);
+        }
+
+        long[] nanosPerOp = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            nanosPerOp[i] = runRound(opsPerRound, body) / opsPerRound;
+        }
+
+        Arrays.sort(nanosPerOp);
+        long median = nanosPerOp[rounds / 2];
+
+        if (median >= 1_000_000) {
+            System.out.printf("%-60s %,12.2f ms/op  (min %,.2f)%n", name, median / 1e6, nanosPerOp[0] / 1e6);
+        } else {
+            System.out.printf("%-60s %,12d ns/op  (min %,d)%n", name, median, nanosPerOp[0]);
+        }
+    }
+
+    private static long runRound(int ops, Body body) throws Exception {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < ops; i++) {
+            sink = body.run();
+        }
+
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,60 @@
+package com.jotage.jotageTotems.bench;
+
+import com.jotage.jotageTotems.utils.TimerWheel;
+
+import java.util.Random;
+
+/**
+ * Custo por tick do driver único de contagens (TimerWheel), com 1k contagens simultâneas.
+ * Cada contagem avança em passos de até 20 ticks, como o TeleportHandler (inclusive frações de segundo);
+ * ao terminar, outra começa no lugar, para manter 1k ativas.
+ * Mede só o driver: mensagens, sons e partículas de cada passo dependem do servidor.
+ */
+public final class CountdownBenchmark {
+
+    private static final int STEP_TICKS = 20;
+
+    private static final class Countdown {
+        int remainingTicks;
+
+        Countdown(int remainingTicks) {
+            this.remainingTicks = remainingTicks;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int concurrent : new int[]{100, 1_000, 10_000}) {
+            TimerWheel<Countdown> wheel = new TimerWheel<>(64);
+            Random random = new Random(42);
+
+            for (int i = 0; i < concurrent; i++) {
+                start(wheel, new Countdown(randomCountdown(random)));
+            }
+
+            Bench.measure("tick com " + concurrent + " contagens", 200, 9, 2_000, () -> {
+                wheel.advance(countdown -> step(wheel, countdown, random));
+                return wheel;
+            });
+        }
+    }
+
+    private static void step(TimerWheel<Countdown> wheel, Countdown countdown, Random random) {
+        if (countdown.remainingTicks <= 0) {
+            // Teleporte concluído: uma nova contagem entra no lugar
+            countdown.remainingTicks = randomCountdown(random);
+        }
+
+        start(wheel, countdown);
+    }
+
+    private static void start(TimerWheel<Countdown> wheel, Countdown countdown) {
+        int delay = Math.min(STEP_TICKS, countdown.remainingTicks);
+        countdown.remainingTicks -= delay;
+        wheel.schedule(countdown, delay);
+    }
+
+    // 1 a 5 segundos, com frações (ex.: 2.5 s = 50 ticks)
+    private static int randomCountdown(Random random) {
+        return 20 + random.nextInt(81);
+    }
+}
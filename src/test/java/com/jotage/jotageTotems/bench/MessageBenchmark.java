@@ -0,0 +1,55 @@
+package com.jotage.jotageTotems.bench;
+
+import com.jotage.jotageTotems.utils.MessageArgs;
+import com.jotage.jotageTotems.utils.MessageTemplate;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.ChatColor;
+
+import java.util.List;
+
+/**
+ * Mensagens em Component (trechos parseados uma vez) contra o caminho antigo:
+ * string legada com '§' montada a cada envio e convertida em Component pelo servidor no sendMessage(String).
+ */
+public final class MessageBenchmark {
+
+    private static final String STATIC_MESSAGE = "&8[&bTotems&8] &c✗ Você não tem XP suficiente!";
+
+    private static final List<String> DYNAMIC_MESSAGE = List.of(
+            "",
+            "&a✓ Totem renomeado com sucesso!",
+            "&7  Nome antigo: &f{old}",
+            "&7  Nome novo: &b{new}",
+            ""
+    );
+
+    public static void main(String[] args) throws Exception {
+        LegacyComponentSerializer server = LegacyComponentSerializer.legacySection();
+
+        // Caminho antigo: template com os códigos já traduzidos para '§'
+        MessageTemplate legacyStatic = MessageTemplate.compile(ChatColor.translateAlternateColorCodes('&', STATIC_MESSAGE));
+        MessageTemplate legacyDynamic = MessageTemplate.compile(
+                DYNAMIC_MESSAGE.stream().<String>map(line -> ChatColor.translateAlternateColorCodes('&', line)).toList());
+
+        // Caminho novo: template compilado direto do formato '&' do messages.yml
+        MessageTemplate componentStatic = MessageTemplate.compile(STATIC_MESSAGE);
+        MessageTemplate componentDynamic = MessageTemplate.compile(DYNAMIC_MESSAGE);
+
+        MessageArgs messageArgs = new MessageArgs(2);
+
+        Bench.measure("estática: string legada + parse do servidor", 5, 9, 100_000,
+                () -> server.deserialize(legacyStatic.render()));
+        Bench.measure("estática: Component em cache", 5, 9, 100_000,
+                componentStatic::component);
+
+        int[] next = {0};
+        Bench.measure("dinâmica: string legada + parse do servidor", 5, 9, 100_000, () -> {
+            messageArgs.clear().set("old", "Base").set("new", "Base " + (next[0]++ & 15));
+            return server.deserialize(legacyDynamic.render(messageArgs));
+        });
+        Bench.measure("dinâmica: placeholders no Component pré-parseado", 5, 9, 100_000, () -> {
+            messageArgs.clear().set("old", "Base").set("new", "Base " + (next[0]++ & 15));
+            return componentDynamic.component(messageArgs);
+        });
+    }
+}
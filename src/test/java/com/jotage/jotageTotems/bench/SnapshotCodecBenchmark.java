@@ -0,0 +1,72 @@
+package com.jotage.jotageTotems.bench;
+
+import com.jotage.jotageTotems.storage.SnapshotFormat;
+import com.jotage.jotageTotems.storage.TotemRecord;
+import com.jotage.jotageTotems.storage.TotemSnapshotCodec;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Tempo de leitura e gravação do snapshot de totems, YAML contra binário, com 10k e 100k totems.
+ */
+public final class SnapshotCodecBenchmark {
+
+    private static final String[] WORLDS = {"world", "world_nether", "world_the_end"};
+
+    public static void main(String[] args) throws Exception {
+        Logger logger = Logger.getLogger("SnapshotCodecBenchmark");
+        File directory = Files.createTempDirectory("jotage-bench").toFile();
+
+        for (int count : new int[]{10_000, 100_000}) {
+            List<TotemRecord> records = generate(count);
+
+            for (SnapshotFormat format : SnapshotFormat.values()) {
+                File file = new File(directory, "totems-" + count + format.getExtension());
+                String label = format.name().toLowerCase() + " " + count + " totems";
+
+                Bench.measure("write " + label, 2, 5, 1, () -> {
+                    TotemSnapshotCodec.write(file, format, records);
+                    return file;
+                });
+
+                Bench.measure("read  " + label, 2, 5, 1, () -> TotemSnapshotCodec.read(file, format, logger));
+
+                System.out.printf("%-60s %,12d bytes%n", "size  " + label, file.length());
+                file.delete();
+            }
+        }
+
+        directory.delete();
+    }
+
+    private static List<TotemRecord> generate(int count) {
+        Random random = new Random(42);
+        List<UUID> owners = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, count / 20); i++) {
+            owners.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        List<TotemRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(new TotemRecord(
+                    new UUID(random.nextLong(), random.nextLong()),
+                    owners.get(random.nextInt(owners.size())),
+                    "Totem " + i,
+                    WORLDS[random.nextInt(WORLDS.length)],
+                    random.nextInt(60_000) - 30_000,
+                    random.nextInt(300) - 60,
+                    random.nextInt(60_000) - 30_000,
+                    "BEDROCK",
+                    1_700_000_000_000L + i
+            ));
+        }
+
+        return records;
+    }
+}
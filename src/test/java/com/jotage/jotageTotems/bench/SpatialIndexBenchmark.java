@@ -0,0 +1,139 @@
+package com.jotage.jotageTotems.bench;
+
+import com.jotage.jotageTotems.managers.TotemSpatialIndex;
+import com.jotage.jotageTotems.models.Totem;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Consultas do TotemSpatialIndex com 10k, 100k e 1M totems espalhados num quadrado de 40k blocos.
+ * Cobre os atalhos do índice: parada antecipada do nearest por anéis, varredura dos chunks
+ * populados quando o anel (ou o raio) fica grande demais, e a comparação com uma varredura linear.
+ */
+public final class SpatialIndexBenchmark {
+
+    private static final int HALF_SIZE = 20_000;
+    private static final int QUERIES = 1024;
+
+    public static void main(String[] args) throws Exception {
+        World world = fakeWorld();
+
+        for (int count : new int[]{10_000, 100_000, 1_000_000}) {
+            Random random = new Random(42);
+
+            TotemSpatialIndex index = new TotemSpatialIndex();
+            List<Totem> totems = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Location location = new Location(world,
+                        random.nextInt(2 * HALF_SIZE) - HALF_SIZE, 64, random.nextInt(2 * HALF_SIZE) - HALF_SIZE);
+                Totem totem = new Totem(new UUID(random.nextLong(), random.nextLong()), UUID.randomUUID(),
+                        "Totem " + i, location, Material.BEDROCK, 0);
+                totems.add(totem);
+                index.add(totem);
+            }
+
+            Location[] inside = new Location[QUERIES];
+            Location[] farAway = new Location[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                inside[i] = new Location(world,
+                        random.nextInt(2 * HALF_SIZE) - HALF_SIZE, 64, random.nextInt(2 * HALF_SIZE) - HALF_SIZE);
+                // Longe de tudo: o nearest cai na varredura dos chunks populados
+                farAway[i] = new Location(world, 10 * HALF_SIZE + random.nextInt(1000), 64, random.nextInt(1000));
+            }
+
+            String suffix = " @ " + count;
+            int[] next = {0};
+
+            Bench.measure("nearest k=1" + suffix, 3, 7, QUERIES,
+                    () -> index.nearest(inside[next[0]++ & (QUERIES - 1)], 1));
+            Bench.measure("nearest k=10" + suffix, 3, 7, QUERIES,
+                    () -> index.nearest(inside[next[0]++ & (QUERIES - 1)], 10));
+            Bench.measure("nearest k=1 longe de todos (fallback)" + suffix, 1, 3, 8,
+                    () -> index.nearest(farAway[next[0]++ & (QUERIES - 1)], 1));
+            Bench.measure("withinRadius r=64" + suffix, 3, 7, QUERIES,
+                    () -> index.withinRadius(inside[next[0]++ & (QUERIES - 1)], 64));
+            Bench.measure("withinRadius r=1024" + suffix, 3, 7, 64,
+                    () -> index.withinRadius(inside[next[0]++ & (QUERIES - 1)], 1024));
+            Bench.measure("inChunk" + suffix, 3, 7, QUERIES, () -> {
+                Location location = inside[next[0]++ & (QUERIES - 1)];
+                return index.inChunk(world, location.getBlockX() >> 4, location.getBlockZ() >> 4);
+            });
+
+            // Referência: o que o índice substitui (percorrer todos os totems)
+            if (count <= 100_000) {
+                Bench.measure("varredura linear nearest k=1" + suffix, 1, 5, 16,
+                        () -> linearNearest(totems, inside[next[0]++ & (QUERIES - 1)]));
+            }
+
+            System.out.println();
+        }
+    }
+
+    private static Totem linearNearest(List<Totem> totems, Location center) {
+        Totem best = null;
+        double bestDistance = Double.MAX_VALUE;
+
+        for (Totem totem : totems) {
+            double dx = totem.getBlockX() + 0.5 - center.getX();
+            double dy = totem.getBlockY() + 0.5 - center.getY();
+            double dz = totem.getBlockZ() + 0.5 - center.getZ();
+            double distance = dx * dx + dy * dy + dz * dz;
+
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = totem;
+            }
+        }
+
+        return best;
+    }
+
+    // Mundo falso: o índice só usa getUID(); o resto retorna o valor padrão
+    private static World fakeWorld() {
+        UUID worldId = UUID.randomUUID();
+
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getUID" -> worldId;
+                    case "getName", "toString" -> "bench";
+                    case "hashCode" -> worldId.hashCode();
+                    case "equals" -> proxy == args[0];
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return (byte) 0;
+    }
+}